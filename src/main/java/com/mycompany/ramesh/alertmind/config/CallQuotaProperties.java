@@ -0,0 +1,19 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.call-quota")
+public record CallQuotaProperties(
+		boolean enabled,
+		@Min(1) int maxConcurrentCalls,
+		@NotNull Duration leaseDuration,
+		@Min(0) int acquireRetries,
+		@NotNull Duration acquireBackoff
+) {
+}
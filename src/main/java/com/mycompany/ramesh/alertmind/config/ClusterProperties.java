@@ -0,0 +1,17 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.cluster")
+public record ClusterProperties(
+		@Min(1) int partitions,
+		@NotNull Duration heartbeatInterval,
+		@NotNull Duration leaseDuration
+) {
+}
@@ -0,0 +1,25 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.List;
+
+@Validated
+@ConfigurationProperties(prefix = "app.dialer-routing")
+public record DialerRoutingProperties(
+		@NotEmpty List<String> providers,
+		boolean failoverEnabled,
+		@NotNull Duration window,
+		@Min(1) int minSamples,
+		@DecimalMin("0.0") @DecimalMax("1.0") double maxErrorRate,
+		@NotNull Duration maxP95Latency,
+		@NotNull Duration dialTimeout
+) {
+}
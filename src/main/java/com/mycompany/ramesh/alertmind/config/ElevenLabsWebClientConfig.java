@@ -9,9 +9,12 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class ElevenLabsWebClientConfig {
 
+	/**
+	 * Built from Boot's WebClient.Builder so requests are observed as http.client.requests.
+	 */
 	@Bean
-	public WebClient elevenLabsWebClient(ElevenLabsProperties properties) {
-		return WebClient.builder()
+	public WebClient elevenLabsWebClient(WebClient.Builder webClientBuilder, ElevenLabsProperties properties) {
+		return webClientBuilder.clone()
 				.baseUrl(properties.baseUrl())
 				.defaultHeader("xi-api-key", properties.apiKey())
 				.defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -0,0 +1,12 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "app.fan-out")
+public record FanOutProperties(
+		@Min(1) int parallelism
+) {
+}
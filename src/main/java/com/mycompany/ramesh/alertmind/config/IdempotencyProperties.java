@@ -0,0 +1,20 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.idempotency")
+public record IdempotencyProperties(
+		boolean enabled,
+		@NotNull Duration keyTtl,
+		@NotNull Duration derivedKeyTtl,
+		@NotNull Duration inFlightLease,
+		@NotNull Duration pollInterval,
+		@Min(1) long cacheMaximumSize
+) {
+}
@@ -0,0 +1,216 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converters between Jackson trees and BSON documents, used for the raw ElevenLabs payloads held
+ * as {@link JsonNode} on the entities. Both directions walk the tree once and keep numeric types:
+ * ints and longs stay 32/64-bit integers, decimals become Decimal128.
+ * <p>
+ * Entity properties are stored as documents, so a tree whose root is not an object is wrapped
+ * under {@value #VALUE_KEY}.
+ */
+public final class JsonNodeConverters {
+
+	static final String VALUE_KEY = "_json";
+	// Layout of trees written by the reflective bean mapping used before these converters
+	private static final String LEGACY_CHILDREN_KEY = "_children";
+	private static final String LEGACY_VALUE_KEY = "_value";
+	private static final String LEGACY_NODE_PACKAGE = "com.fasterxml.jackson.databind.node.";
+	private static final String TYPE_KEY = "_class";
+
+	private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.withExactBigDecimals(true);
+	private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+	private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+	private JsonNodeConverters() {
+	}
+
+	public static List<Converter<?, ?>> converters() {
+		return List.of(JsonNodeToDocumentConverter.INSTANCE, DocumentToJsonNodeConverter.INSTANCE);
+	}
+
+	/**
+	 * Converts a value read by the Mongo driver (document, list or scalar) to a Jackson tree.
+	 */
+	public static JsonNode toJsonNode(Object value) {
+		if (value == null) {
+			return NODE_FACTORY.nullNode();
+		}
+		if (value instanceof Document document) {
+			if (document.containsKey(LEGACY_CHILDREN_KEY)) {
+				return toJsonNode(document.get(LEGACY_CHILDREN_KEY));
+			}
+			if (isLegacyLeaf(document)) {
+				// Null and missing nodes were written without a value
+				return toJsonNode(document.get(LEGACY_VALUE_KEY));
+			}
+			ObjectNode node = NODE_FACTORY.objectNode();
+			for (Map.Entry<String, Object> entry : document.entrySet()) {
+				if (!TYPE_KEY.equals(entry.getKey())) {
+					node.set(entry.getKey(), toJsonNode(entry.getValue()));
+				}
+			}
+			return node;
+		}
+		if (value instanceof List<?> list) {
+			ArrayNode node = NODE_FACTORY.arrayNode(list.size());
+			for (Object element : list) {
+				node.add(toJsonNode(element));
+			}
+			return node;
+		}
+		if (value instanceof String text) {
+			return NODE_FACTORY.textNode(text);
+		}
+		if (value instanceof Integer number) {
+			return NODE_FACTORY.numberNode(number);
+		}
+		if (value instanceof Long number) {
+			return NODE_FACTORY.numberNode(number);
+		}
+		if (value instanceof Double number) {
+			return NODE_FACTORY.numberNode(number);
+		}
+		if (value instanceof Boolean flag) {
+			return NODE_FACTORY.booleanNode(flag);
+		}
+		if (value instanceof Decimal128 decimal) {
+			return decimal.isNaN() || decimal.isInfinite()
+					? NODE_FACTORY.numberNode(decimal.doubleValue())
+					: NODE_FACTORY.numberNode(decimal.bigDecimalValue());
+		}
+		if (value instanceof Date date) {
+			return NODE_FACTORY.textNode(date.toInstant().toString());
+		}
+		if (value instanceof ObjectId objectId) {
+			return NODE_FACTORY.textNode(objectId.toHexString());
+		}
+		if (value instanceof Binary binary) {
+			return NODE_FACTORY.binaryNode(binary.getData());
+		}
+		return NODE_FACTORY.textNode(value.toString());
+	}
+
+	/**
+	 * A scalar node written by the bean mapping: its value under {@code _value} and its Jackson
+	 * node class under {@code _class}, with nothing else.
+	 */
+	private static boolean isLegacyLeaf(Document document) {
+		Object type = document.get(TYPE_KEY);
+		if (!(type instanceof String className) || !className.startsWith(LEGACY_NODE_PACKAGE)) {
+			return false;
+		}
+		return document.size() == 1 || (document.size() == 2 && document.containsKey(LEGACY_VALUE_KEY));
+	}
+
+	/**
+	 * Converts a Jackson tree to the Java values the Mongo driver encodes natively.
+	 */
+	public static Object toBsonValue(JsonNode node) {
+		if (node == null || node.isNull() || node.isMissingNode()) {
+			return null;
+		}
+		if (node.isObject()) {
+			Document document = new Document();
+			Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				document.put(field.getKey(), toBsonValue(field.getValue()));
+			}
+			return document;
+		}
+		if (node.isArray()) {
+			List<Object> list = new ArrayList<>(node.size());
+			for (JsonNode element : node) {
+				list.add(toBsonValue(element));
+			}
+			return list;
+		}
+		if (node.isTextual()) {
+			return node.textValue();
+		}
+		if (node.isBoolean()) {
+			return node.booleanValue();
+		}
+		if (node.isInt() || node.isShort()) {
+			return node.intValue();
+		}
+		if (node.isLong()) {
+			return node.longValue();
+		}
+		if (node.isBigInteger()) {
+			BigInteger value = node.bigIntegerValue();
+			return value.compareTo(LONG_MIN) >= 0 && value.compareTo(LONG_MAX) <= 0
+					? (Object) value.longValue()
+					: toDecimal128(new BigDecimal(value));
+		}
+		if (node.isBigDecimal()) {
+			return toDecimal128(node.decimalValue());
+		}
+		if (node.isFloatingPointNumber()) {
+			return node.doubleValue();
+		}
+		if (node.isBinary()) {
+			return new Binary(((BinaryNode) node).binaryValue());
+		}
+		return node.asText();
+	}
+
+	private static Object toDecimal128(BigDecimal value) {
+		try {
+			return new Decimal128(value);
+		} catch (NumberFormatException e) {
+			// More than the 34 significant digits Decimal128 can hold
+			return value.doubleValue();
+		}
+	}
+
+	@WritingConverter
+	enum JsonNodeToDocumentConverter implements Converter<JsonNode, Document> {
+
+		INSTANCE;
+
+		@Override
+		public Document convert(JsonNode source) {
+			Object value = toBsonValue(source);
+			if (value instanceof Document document) {
+				return document;
+			}
+			return new Document(VALUE_KEY, value);
+		}
+	}
+
+	@ReadingConverter
+	enum DocumentToJsonNodeConverter implements Converter<Document, JsonNode> {
+
+		INSTANCE;
+
+		@Override
+		public JsonNode convert(Document source) {
+			if (source.size() == 1 && source.containsKey(VALUE_KEY)) {
+				return toJsonNode(source.get(VALUE_KEY));
+			}
+			return toJsonNode(source);
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Admission control for the endpoints that start expensive work. Endpoints are given as
+ * {@code "<METHOD> <path pattern>"}, each with its own adaptive concurrency limit.
+ */
+@Validated
+@ConfigurationProperties(prefix = "app.load-shedding")
+public record LoadSheddingProperties(
+		boolean enabled,
+		@NotEmpty List<String> endpoints,
+		@Min(1) int initialLimit,
+		@Min(1) int minLimit,
+		@Min(1) int maxLimit,
+		@DecimalMin("0.1") @DecimalMax("1.0") double backoffRatio,
+		@NotNull Duration probeInterval,
+		@NotNull Duration retryAfter
+) {
+}
@@ -0,0 +1,163 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.ramesh.alertmind.exception.ApiErrorResponse;
+import com.mycompany.ramesh.alertmind.service.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+
+/**
+ * Sheds load on the endpoints that start calls and incidents. Each endpoint has an
+ * {@link AdaptiveConcurrencyLimit}; requests beyond it are rejected straight away with 429 and
+ * {@code Retry-After} instead of queueing in memory while ElevenLabs is slow.
+ */
+@Component
+public class LoadSheddingWebFilter implements WebFilter, Ordered {
+
+	private static final Logger log = LoggerFactory.getLogger(LoadSheddingWebFilter.class);
+
+	/**
+	 * Exchange attribute set when the response status was passed through from an upstream
+	 * service, so the filter can tell upstream overload from this service's own 429s.
+	 */
+	public static final String UPSTREAM_STATUS_ATTRIBUTE = LoadSheddingWebFilter.class.getName() + ".upstreamStatus";
+
+	private final LoadSheddingProperties properties;
+	private final ObjectMapper objectMapper;
+	private final List<GuardedEndpoint> endpoints;
+
+	public LoadSheddingWebFilter(LoadSheddingProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.objectMapper = objectMapper;
+		this.endpoints = properties.endpoints().stream()
+				.map(endpoint -> GuardedEndpoint.parse(endpoint, properties, meterRegistry))
+				.toList();
+	}
+
+	/**
+	 * Runs after the HTTP server observation filter, so shed requests still show up in
+	 * http.server.requests.
+	 */
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 10;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (!properties.enabled()) {
+			return chain.filter(exchange);
+		}
+		GuardedEndpoint endpoint = match(exchange);
+		if (endpoint == null) {
+			return chain.filter(exchange);
+		}
+		AdaptiveConcurrencyLimit limit = endpoint.limit();
+		if (!limit.tryAcquire()) {
+			endpoint.rejected().increment();
+			log.warn("Shedding {} {}: {} requests in flight, limit {}", endpoint.method(), endpoint.pattern(),
+					limit.inflight(), limit.limit());
+			return reject(exchange.getResponse(), endpoint);
+		}
+
+		int inflightAtStart = limit.inflight();
+		long start = System.nanoTime();
+		return chain.filter(exchange)
+				.doFinally(signal -> limit.release(System.nanoTime() - start, inflightAtStart,
+						isDropped(signal, exchange.getResponse().getStatusCode(),
+								exchange.getAttribute(UPSTREAM_STATUS_ATTRIBUTE) != null)));
+	}
+
+	private GuardedEndpoint match(ServerWebExchange exchange) {
+		for (GuardedEndpoint endpoint : endpoints) {
+			if (endpoint.method().equals(exchange.getRequest().getMethod())
+					&& endpoint.pattern().matches(exchange.getRequest().getPath().pathWithinApplication())) {
+				return endpoint;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Errors, cancellations (usually client timeouts), 5xx and 429s passed through from upstream
+	 * mean the request ran into overload; their latency would understate it, so they back the
+	 * limit off instead. This service's own 429s, such as the concurrent call quota, say nothing
+	 * about downstream capacity and are not counted.
+	 */
+	private static boolean isDropped(SignalType signal, HttpStatusCode status, boolean fromUpstream) {
+		if (signal != SignalType.ON_COMPLETE) {
+			return true;
+		}
+		return status != null && (status.is5xxServerError()
+				|| (fromUpstream && status.value() == HttpStatus.TOO_MANY_REQUESTS.value()));
+	}
+
+	private Mono<Void> reject(ServerHttpResponse response, GuardedEndpoint endpoint) {
+		response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+		response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+				String.valueOf(Math.max(1, properties.retryAfter().toSeconds())));
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		byte[] body;
+		try {
+			body = objectMapper.writeValueAsBytes(new ApiErrorResponse("Service overloaded",
+					"Too many concurrent requests to " + endpoint.pattern() + ", retry later"));
+		} catch (JsonProcessingException e) {
+			return response.setComplete();
+		}
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+	}
+
+	private record GuardedEndpoint(
+			HttpMethod method,
+			PathPattern pattern,
+			AdaptiveConcurrencyLimit limit,
+			Counter rejected
+	) {
+		static GuardedEndpoint parse(String endpoint, LoadSheddingProperties properties, MeterRegistry meterRegistry) {
+			String[] parts = endpoint.trim().split("\\s+", 2);
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Load shedding endpoint must be '<METHOD> <path>': " + endpoint);
+			}
+			HttpMethod method = HttpMethod.valueOf(parts[0].toUpperCase());
+			PathPattern pattern = PathPatternParser.defaultInstance.parse(parts[1]);
+			AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties.initialLimit(),
+					properties.minLimit(), properties.maxLimit(), properties.backoffRatio(), properties.probeInterval());
+
+			String tag = method.name() + " " + pattern.getPatternString();
+			Gauge.builder("alertmind.load_shedding.limit", limit, AdaptiveConcurrencyLimit::limit)
+					.description("Current adaptive concurrency limit")
+					.tag("endpoint", tag)
+					.register(meterRegistry);
+			Gauge.builder("alertmind.load_shedding.inflight", limit, AdaptiveConcurrencyLimit::inflight)
+					.description("Requests currently admitted")
+					.tag("endpoint", tag)
+					.register(meterRegistry);
+			Counter rejected = Counter.builder("alertmind.load_shedding.rejected")
+					.description("Requests rejected by load shedding")
+					.tag("endpoint", tag)
+					.register(meterRegistry);
+			return new GuardedEndpoint(method, pattern, limit, rejected);
+		}
+	}
+}
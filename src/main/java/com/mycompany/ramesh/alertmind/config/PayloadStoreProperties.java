@@ -0,0 +1,16 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "app.payload-store")
+public record PayloadStoreProperties(
+		@Min(1) @Max(9) int compressionLevel,
+		@NotNull DataSize gridFsThreshold
+) {
+}
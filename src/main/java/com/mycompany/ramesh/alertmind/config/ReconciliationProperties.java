@@ -0,0 +1,22 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.reconciliation")
+public record ReconciliationProperties(
+		boolean enabled,
+		@NotNull Duration sweepInterval,
+		@NotNull Duration staleAfter,
+		@Min(1) int pageSize,
+		@Min(1) int concurrency,
+		@Min(1) int ratePerSecond,
+		@Min(1) int maxPerSweep,
+		@Min(1) int maxAttempts
+) {
+}
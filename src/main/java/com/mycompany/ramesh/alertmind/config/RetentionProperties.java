@@ -0,0 +1,35 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+@Validated
+@ConfigurationProperties(prefix = "app.retention")
+public record RetentionProperties(
+		boolean enabled,
+		@NotNull Path archiveDirectory,
+		@NotNull Duration sweepInterval,
+		@NotNull Duration deleteGrace,
+		@Min(1) int batchSize,
+		@NotNull @Valid CollectionRetention agentCalls,
+		@NotNull @Valid CollectionRetention callPayloads
+) {
+	/**
+	 * How long documents are kept, optionally overridden per status.
+	 */
+	public record CollectionRetention(
+			@NotNull Duration retention,
+			Map<String, Duration> byStatus
+	) {
+		public Map<String, Duration> byStatus() {
+			return byStatus != null ? byStatus : Map.of();
+		}
+	}
+}
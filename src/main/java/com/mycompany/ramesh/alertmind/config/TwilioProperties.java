@@ -7,8 +7,10 @@ import org.springframework.validation.annotation.Validated;
 @Validated
 @ConfigurationProperties(prefix = "app.twilio")
 public record TwilioProperties(
+		@NotBlank String baseUrl,
 		@NotBlank String accountSid,
 		@NotBlank String authToken,
-		@NotBlank String fromNumber
+		@NotBlank String fromNumber,
+		String statusCallbackUrl
 ) {
 }
@@ -0,0 +1,17 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class TwilioWebClientConfig {
+
+	@Bean
+	public WebClient twilioWebClient(WebClient.Builder webClientBuilder, TwilioProperties properties) {
+		return webClientBuilder.clone()
+				.baseUrl(properties.baseUrl())
+				.defaultHeaders(headers -> headers.setBasicAuth(properties.accountSid(), properties.authToken()))
+				.build();
+	}
+}
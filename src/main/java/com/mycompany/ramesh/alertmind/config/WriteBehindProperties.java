@@ -0,0 +1,18 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.write-behind")
+public record WriteBehindProperties(
+		boolean enabled,
+		@NotNull Duration flushInterval,
+		@Min(1) int maxBatchSize,
+		@Min(1) int maxPending
+) {
+}
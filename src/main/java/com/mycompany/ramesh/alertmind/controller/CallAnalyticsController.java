@@ -0,0 +1,63 @@
+package com.mycompany.ramesh.alertmind.controller;
+
+import com.mycompany.ramesh.alertmind.dto.CallOutcomeStats;
+import com.mycompany.ramesh.alertmind.dto.StageLatencyStats;
+import com.mycompany.ramesh.alertmind.service.CallAnalyticsService;
+import com.mycompany.ramesh.alertmind.service.CallAnalyticsService.Dimension;
+import com.mycompany.ramesh.alertmind.service.CallLatencyService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class CallAnalyticsController {
+
+	private final CallAnalyticsService callAnalyticsService;
+	private final CallLatencyService callLatencyService;
+
+	public CallAnalyticsController(CallAnalyticsService callAnalyticsService, CallLatencyService callLatencyService) {
+		this.callAnalyticsService = callAnalyticsService;
+		this.callLatencyService = callLatencyService;
+	}
+
+	/**
+	 * Answer rate, no-answer rate, time to acknowledge and failure reasons of the calls created
+	 * between {@code from} and {@code to} (default: the last 24 hours), grouped by any of HOUR,
+	 * ASSIGNMENT_GROUP and TO_NUMBER.
+	 */
+	@GetMapping("/call-outcomes")
+	public Flux<CallOutcomeStats> getCallOutcomes(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+			@RequestParam(required = false) String assignmentGroup,
+			@RequestParam(required = false) String toNumber,
+			@RequestParam(required = false) Set<Dimension> groupBy) {
+		Instant end = to != null ? to : Instant.now();
+		Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+		Set<Dimension> dimensions = groupBy == null || groupBy.isEmpty() ? EnumSet.allOf(Dimension.class) : groupBy;
+		return callAnalyticsService.query(start, end, assignmentGroup, toNumber, dimensions);
+	}
+
+	/**
+	 * Latency percentiles of each call stage, from incident receipt through answer to completion,
+	 * for the stages completed between {@code from} and {@code to} (default: the last 24 hours).
+	 */
+	@GetMapping("/call-stages")
+	public Flux<StageLatencyStats> getCallStageLatencies(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+			@RequestParam(defaultValue = "false") boolean hourly) {
+		Instant end = to != null ? to : Instant.now();
+		Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+		return callLatencyService.query(start, end, hourly);
+	}
+}
@@ -3,7 +3,10 @@ package com.mycompany.ramesh.alertmind.controller;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.mycompany.ramesh.alertmind.entity.AgentCall;
 import com.mycompany.ramesh.alertmind.repository.AgentCallRepository;
+import com.mycompany.ramesh.alertmind.service.CallStatusUpdater;
 import com.mycompany.ramesh.alertmind.service.ElevenLabsClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -14,23 +17,47 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/webhooks/elevenlabs")
 public class CallWebhookController {
 
 	private static final Logger log = LoggerFactory.getLogger(CallWebhookController.class);
+	private static final Set<String> KNOWN_EVENT_TYPES = Set.of(
+			"call.initiated", "call.ringing", "call.answered", "call.completed", "call.ended",
+			"call_initiation_failure", "call.busy", "call.no_answer", "call.failed", "call.canceled",
+			"call.unreachable", "call.rejected");
 	
 	private final AgentCallRepository agentCallRepository;
 	private final ElevenLabsClient elevenLabsClient;
+	private final CallStatusUpdater callStatusUpdater;
+	private final MeterRegistry meterRegistry;
 
-	public CallWebhookController(AgentCallRepository agentCallRepository, 
-					 ElevenLabsClient elevenLabsClient) {
+	public CallWebhookController(AgentCallRepository agentCallRepository,
+					 ElevenLabsClient elevenLabsClient,
+					 CallStatusUpdater callStatusUpdater,
+					 MeterRegistry meterRegistry) {
 		this.agentCallRepository = agentCallRepository;
 		this.elevenLabsClient = elevenLabsClient;
+		this.callStatusUpdater = callStatusUpdater;
+		this.meterRegistry = meterRegistry;
 	}
 
 	@PostMapping("/call-status")
 	public Mono<ResponseEntity<String>> handleCallStatus(@RequestBody JsonNode payload) {
+		String eventType = eventTypeTag(extractField(payload, "event_type"));
+		meterRegistry.counter("alertmind.webhook.events", "event_type", eventType).increment();
+		Timer.Sample sample = Timer.start(meterRegistry);
+		return processCallStatus(payload)
+				.doOnNext(response -> sample.stop(Timer.builder("alertmind.webhook.processing")
+						.description("Time to apply an ElevenLabs call status webhook")
+						.tag("event_type", eventType)
+						.tag("outcome", response.getStatusCode().is2xxSuccessful() ? "success" : "error")
+						.register(meterRegistry)));
+	}
+
+	private Mono<ResponseEntity<String>> processCallStatus(JsonNode payload) {
 		log.info("=== ELEVENLABS CALLBACK RECEIVED ===");
 		log.info("Full Webhook Payload: {}", payload);
 		
@@ -73,12 +100,14 @@ public class CallWebhookController {
 					}
 
 					// If call is completed/answered successfully, fetch transcript
+					Mono<JsonNode> transcript = Mono.empty();
 					if (isCallCompleted(eventType, mappedStatus)) {
-						log.info("Call completed successfully, fetching transcript for call: {}", callId);
-						return fetchAndSaveTranscript(callId, updatedCall);
+						String transcriptCallId = callId != null ? callId : existingCall.callId();
+						log.info("Call completed successfully, fetching transcript for call: {}", transcriptCallId);
+						transcript = elevenLabsClient.getCallTranscript(transcriptCallId);
 					}
 
-					return agentCallRepository.save(updatedCall)
+					return callStatusUpdater.apply(existingCall, updatedCall, transcript)
 						.doOnSuccess(saved -> log.info("Call status updated in database: {} - {}, Event: {}",
 								saved.callId(), saved.status(), eventType))
 						.doOnError(error -> log.error("Failed to update call status: {}", error.getMessage()));
@@ -107,11 +136,7 @@ public class CallWebhookController {
 		}
 
 		if (conversationId != null && !conversationId.isBlank()) {
-			return agentCallRepository.findAll()
-					.filter(ac -> ac.rawResponse() != null
-							&& ac.rawResponse().has("conversation_id")
-							&& conversationId.equals(ac.rawResponse().get("conversation_id").asText()))
-					.next();
+			return agentCallRepository.findFirstByConversationId(conversationId);
 		}
 
 		return Mono.empty();
@@ -145,6 +170,17 @@ public class CallWebhookController {
 		};
 	}
 
+	/**
+	 * Event type as a metric tag; unexpected values share one tag so they cannot grow the number
+	 * of series
+	 */
+	private String eventTypeTag(String eventType) {
+		if (eventType == null) {
+			return "none";
+		}
+		return KNOWN_EVENT_TYPES.contains(eventType) ? eventType : "other";
+	}
+
 	/**
 	 * Check if the event represents a failure
 	 */
@@ -206,25 +242,5 @@ public class CallWebhookController {
 		return eventType.equals("call.completed") || 
 			   (eventType.equals("call.answered") && "completed".equalsIgnoreCase(status));
 	}
-	
-	private Mono<AgentCall> fetchAndSaveTranscript(String callId, AgentCall call) {
-		return elevenLabsClient.getCallTranscript(callId)
-				.flatMap(transcript -> {
-					log.info("=== TRANSCRIPT RETRIEVED ===");
-					log.info("Call ID: {}", callId);
-					log.info("Transcript: {}", transcript);
-					
-					AgentCall updatedCall = call.withTranscript(transcript);
-
-					return agentCallRepository.save(updatedCall)
-						.doOnSuccess(saved -> log.info("Transcript saved for call: {}", saved.callId()))
-						.doOnError(error -> log.error("Failed to save transcript: {}", error.getMessage()));
-				})
-				.onErrorResume(error -> {
-					log.error("Failed to fetch transcript for call {}: {}", callId, error.getMessage());
-					// Still save the call without transcript
-					return agentCallRepository.save(call);
-				});
-	}
-	
+
 }
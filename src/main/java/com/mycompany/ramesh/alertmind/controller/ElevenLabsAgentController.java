@@ -1,11 +1,17 @@
 package com.mycompany.ramesh.alertmind.controller;
 
+import com.mycompany.ramesh.alertmind.dto.AgentPage;
+import com.mycompany.ramesh.alertmind.dto.AgentSummary;
 import com.mycompany.ramesh.alertmind.dto.CreateElevenLabsAgentRequest;
 import com.mycompany.ramesh.alertmind.dto.CreateElevenLabsAgentResponse;
 import com.mycompany.ramesh.alertmind.entity.Agent;
 import com.mycompany.ramesh.alertmind.repository.AgentRepository;
+import com.mycompany.ramesh.alertmind.service.AgentQueryService;
 import com.mycompany.ramesh.alertmind.service.ElevenLabsClient;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +19,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -23,10 +30,13 @@ public class ElevenLabsAgentController {
 
 	private final ElevenLabsClient elevenLabsClient;
 	private final AgentRepository agentRepository;
+	private final AgentQueryService agentQueryService;
 
-	public ElevenLabsAgentController(ElevenLabsClient elevenLabsClient, AgentRepository agentRepository) {
+	public ElevenLabsAgentController(ElevenLabsClient elevenLabsClient, AgentRepository agentRepository,
+									 AgentQueryService agentQueryService) {
 		this.elevenLabsClient = elevenLabsClient;
 		this.agentRepository = agentRepository;
+		this.agentQueryService = agentQueryService;
 	}
 
 	@PostMapping
@@ -49,9 +59,22 @@ public class ElevenLabsAgentController {
 				.map(ResponseEntity::ok);
 	}
 
-	@GetMapping
-	public Flux<Agent> getAllAgents() {
-		return agentRepository.findAll();
+	/**
+	 * One page of agent summaries, newest first. Pass the returned nextCursor to get the next page.
+	 */
+	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<AgentPage> getAgents(@RequestParam(required = false) String cursor,
+									 @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+		return agentQueryService.findPage(cursor, limit);
+	}
+
+	/**
+	 * Every agent summary, newest first, as NDJSON read from a cursor, for exports that want all
+	 * agents without paging.
+	 */
+	@GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<AgentSummary> streamAgents() {
+		return agentQueryService.streamAll();
 	}
 
 	@GetMapping("/{agentId}")
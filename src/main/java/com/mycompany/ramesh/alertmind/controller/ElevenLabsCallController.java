@@ -2,87 +2,244 @@ package com.mycompany.ramesh.alertmind.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.ramesh.alertmind.dto.CallPage;
+import com.mycompany.ramesh.alertmind.dto.CallStatusBatchRequest;
+import com.mycompany.ramesh.alertmind.dto.CallStatusEvent;
 import com.mycompany.ramesh.alertmind.dto.CallStatusRequest;
 import com.mycompany.ramesh.alertmind.dto.CallStatusResponse;
 import com.mycompany.ramesh.alertmind.dto.CreateOutboundCallRequest;
 import com.mycompany.ramesh.alertmind.dto.CreateOutboundCallResponse;
+import com.mycompany.ramesh.alertmind.dto.FanOutCallRequest;
+import com.mycompany.ramesh.alertmind.dto.FanOutCallResponse;
 import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import com.mycompany.ramesh.alertmind.exception.CallQuotaExceededException;
 import com.mycompany.ramesh.alertmind.repository.AgentCallRepository;
+import com.mycompany.ramesh.alertmind.service.AgentCallWriter;
+import com.mycompany.ramesh.alertmind.service.CallConcurrencyLimiter;
+import com.mycompany.ramesh.alertmind.service.CallDialer.DialedCall;
+import com.mycompany.ramesh.alertmind.service.CallDialerRouter;
+import com.mycompany.ramesh.alertmind.service.CallFanOutService;
+import com.mycompany.ramesh.alertmind.service.CallPayloadStore;
+import com.mycompany.ramesh.alertmind.service.CallQueryService;
+import com.mycompany.ramesh.alertmind.service.CallStatusCache;
+import com.mycompany.ramesh.alertmind.service.CallStatusStreamService;
+import com.mycompany.ramesh.alertmind.service.CallStatusUpdater;
+import com.mycompany.ramesh.alertmind.service.CallTransitionRecorder;
 import com.mycompany.ramesh.alertmind.service.ElevenLabsClient;
+import com.mycompany.ramesh.alertmind.service.IdempotencyService;
+import com.mycompany.ramesh.alertmind.service.TranscriptSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.Disposable;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 @RestController
 @RequestMapping("/api/agent-calls")
 public class ElevenLabsCallController {
 
     private static final Logger log = LoggerFactory.getLogger(ElevenLabsCallController.class);
+    private static final int STATUS_REFRESH_CONCURRENCY = 8;
+
     private final ElevenLabsClient elevenLabsClient;
     private final AgentCallRepository agentCallRepository;
+    private final AgentCallWriter agentCallWriter;
     private final ObjectMapper objectMapper;
+    private final CallConcurrencyLimiter callConcurrencyLimiter;
+    private final CallStatusStreamService callStatusStreamService;
+    private final CallStatusCache callStatusCache;
+    private final CallPayloadStore callPayloadStore;
+    private final CallTransitionRecorder callTransitionRecorder;
+    private final CallStatusUpdater callStatusUpdater;
+    private final CallFanOutService callFanOutService;
+    private final CallDialerRouter callDialerRouter;
+    private final CallQueryService callQueryService;
+    private final TranscriptSearchService transcriptSearchService;
+    private final IdempotencyService idempotencyService;
+    private final MeterRegistry meterRegistry;
 
     public ElevenLabsCallController(ElevenLabsClient elevenLabsClient,
                                    AgentCallRepository agentCallRepository,
-                                   ObjectMapper objectMapper) {
+                                   AgentCallWriter agentCallWriter,
+                                   ObjectMapper objectMapper,
+                                   CallConcurrencyLimiter callConcurrencyLimiter,
+                                   CallStatusStreamService callStatusStreamService,
+                                   CallStatusCache callStatusCache,
+                                   CallPayloadStore callPayloadStore,
+                                   CallTransitionRecorder callTransitionRecorder,
+                                   CallStatusUpdater callStatusUpdater,
+                                   CallFanOutService callFanOutService,
+                                   CallDialerRouter callDialerRouter,
+                                   CallQueryService callQueryService,
+                                   TranscriptSearchService transcriptSearchService,
+                                   IdempotencyService idempotencyService,
+                                   MeterRegistry meterRegistry) {
         this.elevenLabsClient = elevenLabsClient;
         this.agentCallRepository = agentCallRepository;
+        this.agentCallWriter = agentCallWriter;
         this.objectMapper = objectMapper;
+        this.callConcurrencyLimiter = callConcurrencyLimiter;
+        this.callStatusStreamService = callStatusStreamService;
+        this.callStatusCache = callStatusCache;
+        this.callPayloadStore = callPayloadStore;
+        this.callTransitionRecorder = callTransitionRecorder;
+        this.callStatusUpdater = callStatusUpdater;
+        this.callFanOutService = callFanOutService;
+        this.callDialerRouter = callDialerRouter;
+        this.callQueryService = callQueryService;
+        this.transcriptSearchService = transcriptSearchService;
+        this.idempotencyService = idempotencyService;
+        this.meterRegistry = meterRegistry;
     }
 
+    /**
+     * Places one outbound call. A retry with the same Idempotency-Key, or without one for the
+     * same incident and number, gets the response of the first request instead of dialing again.
+     */
     @PostMapping
     public Mono<ResponseEntity<CreateOutboundCallResponse>> createCall(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody CreateOutboundCallRequest request) {
-        // 1) Log request and save request payload to DB
         log.info("Received createCall request to {} for incident {}", request.toNumber(), request.incidentNumber());
+        String derivedKey = request.incidentNumber() + ":" + request.toNumber();
+        return idempotencyService.execute("agent-calls", idempotencyKey, derivedKey, request,
+                        CreateOutboundCallResponse.class, () -> placeCall(request))
+                .name("alertmind.calls.create")
+                .tap(Micrometer.metrics(meterRegistry));
+    }
+
+    private Mono<ResponseEntity<CreateOutboundCallResponse>> placeCall(CreateOutboundCallRequest request) {
+        // 1) Save request payload to DB
         JsonNode requestJson = objectMapper.valueToTree(request);
         AgentCall requestRecord = AgentCall.fromRequest(request.toNumber(), requestJson);
 
-        return agentCallRepository.save(requestRecord)
-                .flatMap(savedRequest ->
-                        // 2) Call ElevenLabs
-                        elevenLabsClient.createOutboundCall(request)
-                                .flatMap(apiResponse -> {
-                                    // Save response to DB
-                                    AgentCall responseRecord = savedRequest.withUpdatedResponse(
-                                            apiResponse.callId(),
-                                            elevenLabsClient.getAgentId(),
-                                            elevenLabsClient.getAgentPhoneNumberId(),
-                                            elevenLabsClient.extractCallStatus(apiResponse.rawResponse()),
-                                            apiResponse.rawResponse());
-
-                                    return agentCallRepository.save(responseRecord)
-                                            .flatMap(savedResponse -> {
-                                                // 3) If successful, fetch transcript and save
-                                                String status = elevenLabsClient.extractCallStatus(apiResponse.rawResponse());
-                                                if ("completed".equalsIgnoreCase(status) || "answered".equalsIgnoreCase(status)) {
-                                                    return elevenLabsClient.getCallTranscript(apiResponse.callId())
-                                                            .flatMap(transcriptJson -> {
-                                                                AgentCall withTranscript = savedResponse.withTranscript(transcriptJson);
-                                                                return agentCallRepository.save(withTranscript)
-                                                                        .thenReturn(apiResponse);
-                                                            })
-                                                            .onErrorResume(e -> {
-                                                                log.error("Failed to fetch transcript for call {}: {}", apiResponse.callId(), e.getMessage());
-                                                                return Mono.just(apiResponse);
-                                                            });
-                                                } else {
-                                                    return Mono.just(apiResponse);
-                                                }
-                                            });
-                                })
+        return agentCallWriter.save(requestRecord)
+                .flatMap(callTransitionRecorder::recordCreated)
+                .flatMap(savedRequest -> callConcurrencyLimiter.acquire(savedRequest.id())
+                        .onErrorResume(CallQuotaExceededException.class, e -> agentCallWriter
+                                .save(savedRequest.withFailure(e.getMessage()))
+                                .then(Mono.error(e)))
+                        .then(Mono.defer(() ->
+                        // 2) Dial the call, holding a slot of the concurrent call quota
+                        callDialerRouter.dial(request)
+                                .onErrorResume(e -> rejectCall(savedRequest, e).then(Mono.empty()))
+                                .flatMap(dialed -> recordDialedCall(savedRequest, dialed))
                                 .map(ResponseEntity::ok)
-                                .onErrorResume(e -> {
-                                    log.error("Failed to create call: {}", e.getMessage());
-                                    return Mono.just(ResponseEntity.badRequest().build());
+                                .defaultIfEmpty(ResponseEntity.badRequest().build())
+                )));
+    }
+
+    /**
+     * Marks the call failed and frees its quota slot after no dialer could place it.
+     */
+    private Mono<Void> rejectCall(AgentCall savedRequest, Throwable error) {
+        log.error("Failed to create call: {}", error.getMessage());
+        return callConcurrencyLimiter.release(savedRequest.id())
+                .then(agentCallWriter.save(savedRequest.withFailure(error.getMessage())))
+                .flatMap(saved -> callTransitionRecorder.record(savedRequest, saved))
+                .onErrorResume(e -> {
+                    log.error("Failed to record failure of call {}: {}", savedRequest.id(), e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Saves the dialed call and, once it has been answered, its transcript. The call is already
+     * placed at this point, so a failed write is logged and the caller still gets the call id.
+     */
+    private Mono<CreateOutboundCallResponse> recordDialedCall(AgentCall savedRequest, DialedCall dialed) {
+        // Save response to DB
+        AgentCall responseRecord = savedRequest.withUpdatedResponse(
+                dialed.provider(),
+                dialed.callId(),
+                dialed.agentId(),
+                dialed.agentPhoneNumberId(),
+                dialed.status(),
+                dialed.rawResponse());
+        CreateOutboundCallResponse apiResponse = new CreateOutboundCallResponse(
+                dialed.callId(), dialed.rawResponse());
+
+        return agentCallWriter.save(responseRecord)
+                .flatMap(saved -> callTransitionRecorder.record(savedRequest, saved))
+                .flatMap(savedResponse -> {
+                    // 3) If successful, fetch transcript and save
+                    String status = dialed.status();
+                    if (ElevenLabsClient.PROVIDER.equals(dialed.provider())
+                            && ("completed".equalsIgnoreCase(status) || "answered".equalsIgnoreCase(status))) {
+                        return elevenLabsClient.getCallTranscript(apiResponse.callId())
+                                .flatMap(transcriptJson -> {
+                                    AgentCall withTranscript = savedResponse.withTranscriptStored(Instant.now());
+                                    return callPayloadStore.saveTranscript(savedResponse.id(), transcriptJson)
+                                            .then(transcriptSearchService.index(savedResponse, transcriptJson))
+                                            .then(agentCallWriter.save(withTranscript))
+                                            .thenReturn(apiResponse);
                                 })
-                );
+                                .onErrorResume(e -> {
+                                    log.error("Failed to fetch transcript for call {}: {}", apiResponse.callId(), e.getMessage());
+                                    return Mono.just(apiResponse);
+                                });
+                    } else {
+                        return Mono.just(apiResponse);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to record dialed call {}: {}", apiResponse.callId(), e.getMessage());
+                    return Mono.just(apiResponse);
+                });
+    }
+
+    /**
+     * Calls out one incident to every recipient concurrently. With cancelOnAcknowledge the other
+     * calls are ended as soon as one recipient answers.
+     */
+    @PostMapping("/fan-out")
+    public Mono<ResponseEntity<FanOutCallResponse>> fanOutCall(@Valid @RequestBody FanOutCallRequest request) {
+        log.info("Received fan-out request to {} recipients for incident {}",
+                request.toNumbers().size(), request.incidentNumber());
+        return callFanOutService.fanOut(request)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * One page of call summaries matching the filters, newest first. Pass the returned nextCursor
+     * with the same filters to get the next page.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<CallPage> searchCalls(@RequestParam(required = false) String incidentNumber,
+                                      @RequestParam(required = false) String toNumber,
+                                      @RequestParam(required = false) String status,
+                                      @RequestParam(required = false) String priority,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        return callQueryService.search(
+                new CallQueryService.Filter(incidentNumber, toNumber, status, priority, from, to), cursor, limit);
     }
 
     @PostMapping("/status")
@@ -90,6 +247,12 @@ public class ElevenLabsCallController {
         log.info("Received call status request: conversation_id={}, callSid={}",
                 statusRequest.conversation_id(), statusRequest.callSid());
 
+        CallStatusResponse cached = callStatusCache.get(statusRequest.callSid(), statusRequest.conversation_id());
+        if (cached != null) {
+            log.info("Returning status from cache: {}", cached.status());
+            return Mono.just(ResponseEntity.ok(cached));
+        }
+
         // Try to find the call by callSid first, then by conversation_id in DB
         Mono<AgentCall> callMono = findCallByIdentifiers(statusRequest.callSid(), statusRequest.conversation_id());
 
@@ -99,34 +262,15 @@ public class ElevenLabsCallController {
             // If rawResponse is present and recent, return its status
             String status = call.status();
             if (status != null && !status.isBlank()) {
-                log.info("Returning cached status: {}", status);
-                return Mono.just(ResponseEntity.ok(
-                        new CallStatusResponse(call.callId(), status, call.rawResponse())));
+                log.info("Returning stored status: {}", status);
+                CallStatusResponse response = new CallStatusResponse(call.callId(), call.conversationId(), status, call.rawResponse());
+                callStatusCache.put(call, response);
+                return Mono.just(ResponseEntity.ok(response));
             }
 
             // Otherwise query ElevenLabs for latest call details
             String callId = call.callId() != null ? call.callId() : statusRequest.callSid();
-            if (callId == null) {
-                log.warn("No call ID available to query ElevenLabs");
-                return Mono.just(ResponseEntity.ok(
-                        new CallStatusResponse(null, "unknown", call.rawResponse())));
-            }
-
-            log.info("Fetching latest status from ElevenLabs for callId: {}", callId);
-            return elevenLabsClient.getCallTranscript(callId)
-                    .flatMap(details -> {
-                        String newStatus = elevenLabsClient.extractCallStatus(details);
-                        log.info("Retrieved status from ElevenLabs: {}", newStatus);
-                        AgentCall updated = call.withStatusUpdate(newStatus, details);
-                        return agentCallRepository.save(updated)
-                                .map(saved -> ResponseEntity.ok(
-                                        new CallStatusResponse(saved.callId(), newStatus, saved.rawResponse())));
-                    })
-                    .onErrorResume(e -> {
-                        log.error("Failed to fetch status from ElevenLabs: {}", e.getMessage());
-                        return Mono.just(ResponseEntity.ok(
-                                new CallStatusResponse(call.callId(), call.status(), call.rawResponse())));
-                    });
+            return refreshStatus(call, callId).map(ResponseEntity::ok);
         }).switchIfEmpty(Mono.defer(() -> {
             log.warn("Call not found in database for conversation_id={}, callSid={}",
                     statusRequest.conversation_id(), statusRequest.callSid());
@@ -134,6 +278,146 @@ public class ElevenLabsCallController {
         }));
     }
 
+    /**
+     * Resolves many calls at once: cache hits first, then a single $in query projected to the
+     * status fields, then ElevenLabs refreshes for calls without a status, and finally
+     * {@code not_found} entries for identifiers that matched nothing.
+     */
+    @PostMapping(value = "/status/batch",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<CallStatusResponse> getCallStatuses(@Valid @RequestBody CallStatusBatchRequest batchRequest) {
+        Set<String> callSids = distinctIdentifiers(batchRequest.callSids());
+        Set<String> conversationIds = distinctIdentifiers(batchRequest.conversationIds());
+        log.info("Received batch call status request for {} callSids and {} conversationIds",
+                callSids.size(), conversationIds.size());
+
+        List<CallStatusResponse> cached = new ArrayList<>();
+        callSids.removeIf(callSid -> addIfCached(cached, callStatusCache.get(callSid, null)));
+        conversationIds.removeIf(conversationId -> addIfCached(cached, callStatusCache.get(null, conversationId)));
+        if (callSids.isEmpty() && conversationIds.isEmpty()) {
+            return Flux.fromIterable(cached);
+        }
+
+        Set<String> foundCallSids = ConcurrentHashMap.newKeySet();
+        Set<String> foundConversationIds = ConcurrentHashMap.newKeySet();
+        Flux<CallStatusResponse> stored = agentCallRepository.findStatusesByCallIdInOrConversationIdIn(callSids, conversationIds)
+                .doOnNext(call -> {
+                    if (call.callId() != null) foundCallSids.add(call.callId());
+                    if (call.conversationId() != null) foundConversationIds.add(call.conversationId());
+                })
+                .flatMap(call -> call.status() != null && !call.status().isBlank()
+                        ? Mono.just(new CallStatusResponse(call.callId(), call.conversationId(), call.status(), null))
+                        // The projection is partial, load the full record before writing it back
+                        : agentCallRepository.findById(call.id()).flatMap(full -> refreshStatus(full, full.callId())),
+                        STATUS_REFRESH_CONCURRENCY);
+        Flux<CallStatusResponse> notFound = Flux.defer(() -> Flux.concat(
+                Flux.fromIterable(callSids)
+                        .filter(callSid -> !foundCallSids.contains(callSid))
+                        .map(callSid -> new CallStatusResponse(callSid, null, "not_found", null)),
+                Flux.fromIterable(conversationIds)
+                        .filter(conversationId -> !foundConversationIds.contains(conversationId))
+                        .map(conversationId -> new CallStatusResponse(null, conversationId, "not_found", null))));
+
+        return Flux.fromIterable(cached)
+                .concatWith(stored)
+                .concatWith(notFound)
+                .name("alertmind.calls.status.batch")
+                .tap(Micrometer.metrics(meterRegistry));
+    }
+
+    /**
+     * Streams status transitions as they are written, as SSE or NDJSON. Streams for a single call
+     * start with its current status and complete once it reaches a terminal status.
+     */
+    @GetMapping(value = "/status/stream",
+            produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CallStatusEvent> streamCallStatus(@RequestParam(required = false) String callSid,
+                                                  @RequestParam(required = false) String conversationId,
+                                                  @RequestParam(required = false) String incidentNumber) {
+        log.info("Streaming call status: callSid={}, conversationId={}, incidentNumber={}",
+                callSid, conversationId, incidentNumber);
+
+        Flux<CallStatusEvent> transitions = callStatusStreamService.subscribe(callSid, conversationId, incidentNumber);
+        if (callSid == null && conversationId == null) {
+            return transitions;
+        }
+        // Subscribe before reading the current status so no transition in between is lost;
+        // transitions buffered up to the read are dropped if the read already reflects them
+        return Flux.defer(() -> {
+            ConnectableFlux<CallStatusEvent> live = transitions.replay();
+            Disposable connection = live.connect();
+            return findCallByIdentifiers(callSid, conversationId)
+                    .map(CallStatusEvent::from)
+                    .flatMapMany(current -> AgentCall.isTerminalStatus(current.status())
+                            ? Flux.just(current)
+                            : Flux.just(current).concatWith(live.filter(event -> isAfter(event, current))))
+                    .switchIfEmpty(live)
+                    .doFinally(signal -> connection.dispose());
+        });
+    }
+
+    private static boolean isAfter(CallStatusEvent event, CallStatusEvent current) {
+        return event.timestamp().isAfter(current.timestamp())
+                || (event.timestamp().equals(current.timestamp()) && !event.status().equals(current.status()));
+    }
+
+    /**
+     * Loads the transcript of a call from the payload store; transcripts are not part of the
+     * call record itself.
+     */
+    @GetMapping("/{callSid}/transcript")
+    public Mono<ResponseEntity<JsonNode>> getTranscript(@PathVariable String callSid) {
+        return agentCallRepository.findByCallId(callSid)
+                .flatMap(call -> callPayloadStore.loadTranscript(call.id()))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private Mono<CallStatusResponse> refreshStatus(AgentCall call, String callId) {
+        if (callId == null) {
+            log.warn("No call ID available to query ElevenLabs");
+            return Mono.just(new CallStatusResponse(null, call.conversationId(), "unknown", call.rawResponse()));
+        }
+
+        log.info("Fetching latest status from ElevenLabs for callId: {}", callId);
+        return elevenLabsClient.getCallTranscript(callId)
+                .flatMap(details -> {
+                    String newStatus = elevenLabsClient.extractCallStatus(details);
+                    log.info("Retrieved status from ElevenLabs: {}", newStatus);
+                    AgentCall updated = call.withStatusUpdate(newStatus, details);
+                    return callStatusUpdater.apply(call, updated, Mono.empty())
+                            .map(saved -> {
+                                CallStatusResponse response = new CallStatusResponse(
+                                        saved.callId(), saved.conversationId(), newStatus, saved.rawResponse());
+                                callStatusCache.put(saved, response);
+                                return response;
+                            });
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to fetch status from ElevenLabs: {}", e.getMessage());
+                    return Mono.just(new CallStatusResponse(
+                            call.callId(), call.conversationId(), call.status(), call.rawResponse()));
+                });
+    }
+
+    private static boolean addIfCached(List<CallStatusResponse> hits, CallStatusResponse cached) {
+        if (cached == null) {
+            return false;
+        }
+        hits.add(cached);
+        return true;
+    }
+
+    private static Set<String> distinctIdentifiers(List<String> identifiers) {
+        Set<String> distinct = new LinkedHashSet<>();
+        if (identifiers != null) {
+            identifiers.stream()
+                    .filter(identifier -> identifier != null && !identifier.isBlank())
+                    .forEach(distinct::add);
+        }
+        return distinct;
+    }
+
     private Mono<AgentCall> findCallByIdentifiers(String callSid, String conversationId) {
         // Try callSid first
         if (callSid != null && !callSid.isBlank()) {
@@ -143,11 +427,7 @@ public class ElevenLabsCallController {
 
         // Fallback to conversation_id
         if (conversationId != null && !conversationId.isBlank()) {
-            return agentCallRepository.findAll()
-                    .filter(ac -> ac.rawResponse() != null
-                            && ac.rawResponse().has("conversation_id")
-                            && conversationId.equals(ac.rawResponse().get("conversation_id").asText()))
-                    .next()
+            return agentCallRepository.findFirstByConversationId(conversationId)
                     .doOnNext(call -> log.debug("Found call by conversation_id: {}", conversationId));
         }
 
@@ -1,14 +1,20 @@
 package com.mycompany.ramesh.alertmind.controller;
 
+import com.mycompany.ramesh.alertmind.dto.CreateElevenLabsAgentResponse;
 import com.mycompany.ramesh.alertmind.dto.IncidentCreateRequest;
 import com.mycompany.ramesh.alertmind.dto.IncidentCreateResponse;
+import com.mycompany.ramesh.alertmind.entity.Agent;
+import com.mycompany.ramesh.alertmind.exception.IdempotencyKeyMismatchException;
+import com.mycompany.ramesh.alertmind.repository.AgentRepository;
 import com.mycompany.ramesh.alertmind.service.ElevenLabsClient;
+import com.mycompany.ramesh.alertmind.service.IdempotencyService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
@@ -23,29 +29,59 @@ public class IncidentController {
 	private static final Logger log = LoggerFactory.getLogger(IncidentController.class);
 
 	private final ElevenLabsClient elevenLabsClient;
+	private final AgentRepository agentRepository;
+	private final IdempotencyService idempotencyService;
 
-	public IncidentController(ElevenLabsClient elevenLabsClient) {
+	public IncidentController(ElevenLabsClient elevenLabsClient, AgentRepository agentRepository,
+							  IdempotencyService idempotencyService) {
 		this.elevenLabsClient = elevenLabsClient;
+		this.agentRepository = agentRepository;
+		this.idempotencyService = idempotencyService;
 	}
 
+	/**
+	 * Retries with the same Idempotency-Key, or without one for the same incident and roster
+	 * contact, get the response of the first request instead of creating another agent.
+	 */
 	@PostMapping
 	public Mono<ResponseEntity<IncidentCreateResponse>> createIncident(
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
 			@Valid @RequestBody IncidentCreateRequest request) {
 		String requestId = UUID.randomUUID().toString();
 		log.info("Received incident: {} - {}", request.incidentNumber(), request.shortDescription());
 
-		return elevenLabsClient.createAgentForIncident(request)
-				.doOnSuccess(agentResponse -> log.info("Created ElevenLabs agent: {} for incident: {}",
-						agentResponse.agentId(), request.incidentNumber()))
-				.doOnError(error -> log.error("Failed to create ElevenLabs agent for incident: {}",
-						request.incidentNumber(), error))
-				.map(agentResponse -> {
-					var response = new IncidentCreateResponse(requestId, OffsetDateTime.now(), agentResponse.agentId());
-					return ResponseEntity.accepted().body(response);
-				})
-				.onErrorResume(error -> {
+		String derivedKey = request.incidentNumber() + ":" + request.rosterContact().phoneNumber();
+		return idempotencyService.execute("incidents", idempotencyKey, derivedKey, request, IncidentCreateResponse.class,
+						() -> elevenLabsClient.createAgentForIncident(request)
+								.doOnSuccess(agentResponse -> log.info("Created ElevenLabs agent: {} for incident: {}",
+										agentResponse.agentId(), request.incidentNumber()))
+								.doOnError(error -> log.error("Failed to create ElevenLabs agent for incident: {}",
+										request.incidentNumber(), error))
+								.flatMap(agentResponse -> saveAgent(agentResponse, request))
+								.map(agentResponse -> {
+									var response = new IncidentCreateResponse(requestId, OffsetDateTime.now(), agentResponse.agentId());
+									return ResponseEntity.accepted().body(response);
+								}))
+				// A reused key must still surface as 422 rather than be accepted
+				.onErrorResume(error -> !(error instanceof IdempotencyKeyMismatchException), error -> {
 					var response = new IncidentCreateResponse(requestId, OffsetDateTime.now(), null);
 					return Mono.just(ResponseEntity.accepted().body(response));
 				});
 	}
+
+	/**
+	 * Records the agent so the agent reaper can delete it once the incident is over. A failed save
+	 * does not fail the incident; the agent is then only removed by hand.
+	 */
+	private Mono<CreateElevenLabsAgentResponse> saveAgent(CreateElevenLabsAgentResponse agentResponse,
+														  IncidentCreateRequest request) {
+		return agentRepository.save(Agent.forIncident(agentResponse.agentId(), request.incidentNumber(),
+						agentResponse.rawResponse()))
+				.onErrorResume(error -> {
+					log.error("Failed to record agent {} for incident {}: {}", agentResponse.agentId(),
+							request.incidentNumber(), error.getMessage());
+					return Mono.empty();
+				})
+				.thenReturn(agentResponse);
+	}
 }
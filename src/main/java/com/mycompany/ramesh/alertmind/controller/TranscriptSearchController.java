@@ -0,0 +1,42 @@
+package com.mycompany.ramesh.alertmind.controller;
+
+import com.mycompany.ramesh.alertmind.dto.TranscriptSearchPage;
+import com.mycompany.ramesh.alertmind.service.TranscriptSearchService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/transcripts")
+public class TranscriptSearchController {
+
+	private final TranscriptSearchService transcriptSearchService;
+
+	public TranscriptSearchController(TranscriptSearchService transcriptSearchService) {
+		this.transcriptSearchService = transcriptSearchService;
+	}
+
+	/**
+	 * Transcript turns matching {@code q}, newest call first, with the matched words highlighted
+	 * as character ranges. Pass the returned nextCursor with the same filters to get the next page.
+	 */
+	@GetMapping("/search")
+	public Mono<TranscriptSearchPage> search(
+			@RequestParam @NotBlank String q,
+			@RequestParam(required = false) String incidentNumber,
+			@RequestParam(required = false) String role,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") @Min(1) @Max(200) int limit) {
+		return transcriptSearchService.search(q, incidentNumber, role, from, to, cursor, limit);
+	}
+}
@@ -0,0 +1,91 @@
+package com.mycompany.ramesh.alertmind.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import com.mycompany.ramesh.alertmind.repository.AgentCallRepository;
+import com.mycompany.ramesh.alertmind.service.CallStatusUpdater;
+import com.mycompany.ramesh.alertmind.service.TwilioClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Status callbacks for calls dialed through Twilio directly, when ElevenLabs was bypassed. They
+ * are applied the same way as the ElevenLabs webhooks.
+ */
+@RestController
+@RequestMapping("/api/webhooks/twilio")
+public class TwilioWebhookController {
+
+	private static final Logger log = LoggerFactory.getLogger(TwilioWebhookController.class);
+
+	private final AgentCallRepository agentCallRepository;
+	private final CallStatusUpdater callStatusUpdater;
+	private final ObjectMapper objectMapper;
+
+	public TwilioWebhookController(AgentCallRepository agentCallRepository,
+								   CallStatusUpdater callStatusUpdater,
+								   ObjectMapper objectMapper) {
+		this.agentCallRepository = agentCallRepository;
+		this.callStatusUpdater = callStatusUpdater;
+		this.objectMapper = objectMapper;
+	}
+
+	@PostMapping(value = "/call-status", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+	public Mono<ResponseEntity<String>> handleCallStatus(ServerWebExchange exchange) {
+		return exchange.getFormData()
+				.flatMap(this::processCallStatus)
+				.onErrorResume(error -> {
+					log.error("Error processing Twilio status callback: {}", error.getMessage(), error);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+							.body("Error: " + error.getMessage()));
+				});
+	}
+
+	private Mono<ResponseEntity<String>> processCallStatus(MultiValueMap<String, String> form) {
+		String callSid = form.getFirst("CallSid");
+		String status = TwilioClient.toCallStatus(form.getFirst("CallStatus"));
+		log.info("Twilio status callback - CallSid: {}, CallStatus: {}", callSid, form.getFirst("CallStatus"));
+		if (callSid == null || status == null) {
+			return Mono.just(ResponseEntity.ok("Ignored - no CallSid or CallStatus"));
+		}
+
+		JsonNode payload = objectMapper.valueToTree(form.toSingleValueMap());
+		return agentCallRepository.findByCallId(callSid)
+				.flatMap(existingCall -> {
+					AgentCall updatedCall = existingCall.withStatusUpdate(status, payload);
+					String failureReason = failureReasonOf(status, form);
+					if (failureReason != null) {
+						updatedCall = updatedCall.withFailure(failureReason);
+					}
+					return callStatusUpdater.apply(existingCall, updatedCall, Mono.empty());
+				})
+				.doOnNext(saved -> log.info("Call status updated in database: {} - {}", saved.callId(), saved.status()))
+				.switchIfEmpty(Mono.defer(() -> {
+					log.warn("Call not found in database - CallSid: {}", callSid);
+					return Mono.empty();
+				}))
+				.thenReturn(ResponseEntity.ok("Webhook processed"));
+	}
+
+	private static String failureReasonOf(String status, MultiValueMap<String, String> form) {
+		return switch (status) {
+			case "busy" -> "Recipient is busy";
+			case "no_answer" -> "No answer from recipient";
+			case "canceled" -> "Call canceled";
+			case "failed" -> form.getFirst("ErrorMessage") != null
+					? form.getFirst("ErrorMessage")
+					: "Call failed";
+			default -> null;
+		};
+	}
+}
@@ -0,0 +1,20 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import com.mycompany.ramesh.alertmind.entity.Agent;
+
+import java.time.Instant;
+
+public record AgentSummary(
+        String id,
+        String agentId,
+        String name,
+        String description,
+        String voiceId,
+        String language,
+        Instant createdAt
+) {
+    public static AgentSummary from(Agent agent) {
+        return new AgentSummary(agent.id(), agent.agentId(), agent.name(), agent.description(),
+                agent.voiceId(), agent.language(), agent.createdAt());
+    }
+}
@@ -0,0 +1,25 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Call outcomes aggregated over the requested dimensions; a dimension that was not grouped by is
+ * null. Acknowledge percentiles are the upper bound of the histogram bin holding the percentile.
+ */
+public record CallOutcomeStats(
+		Instant hour,
+		String assignmentGroup,
+		String toNumber,
+		long calls,
+		long answered,
+		double answerRate,
+		double noAnswerRate,
+		Map<String, Long> outcomes,
+		Map<String, Long> failureReasons,
+		Double meanAckSeconds,
+		Long p50AckSeconds,
+		Long p90AckSeconds,
+		Map<String, Long> ackHistogram
+) {
+}
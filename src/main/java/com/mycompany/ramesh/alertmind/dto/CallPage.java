@@ -0,0 +1,9 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import java.util.List;
+
+public record CallPage(
+		List<CallSummary> items,
+		String nextCursor
+) {
+}
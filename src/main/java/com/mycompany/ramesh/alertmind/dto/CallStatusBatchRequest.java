@@ -0,0 +1,11 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record CallStatusBatchRequest(
+        @Size(max = 1000) List<String> callSids,
+        @Size(max = 1000) List<String> conversationIds
+) {
+}
@@ -0,0 +1,35 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+
+import java.time.Instant;
+
+public record CallStatusEvent(
+		String callId,
+		String conversationId,
+		String incidentNumber,
+		String toNumber,
+		String status,
+		String failureReason,
+		Instant timestamp
+) {
+	public static CallStatusEvent from(AgentCall call) {
+		return new CallStatusEvent(
+				call.callId(),
+				call.conversationId(),
+				call.incidentNumber() != null ? call.incidentNumber() : textField(call.requestPayload(), "incidentNumber"),
+				call.toNumber(),
+				call.status(),
+				call.failureReason(),
+				call.lastUpdatedAt() != null ? call.lastUpdatedAt() : Instant.now()
+		);
+	}
+
+	private static String textField(JsonNode node, String fieldName) {
+		if (node != null && node.hasNonNull(fieldName)) {
+			return node.get(fieldName).asText();
+		}
+		return null;
+	}
+}
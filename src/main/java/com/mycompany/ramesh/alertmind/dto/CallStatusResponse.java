@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 public record CallStatusResponse(
         String callId,
+        String conversationId,
         String status,
         JsonNode rawResponse
 ) {
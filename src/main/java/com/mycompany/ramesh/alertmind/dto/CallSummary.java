@@ -0,0 +1,25 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+
+import java.time.Instant;
+
+public record CallSummary(
+		String id,
+		String callId,
+		String conversationId,
+		String incidentNumber,
+		String priority,
+		String toNumber,
+		String status,
+		String provider,
+		String failureReason,
+		Instant createdAt,
+		Instant lastUpdatedAt
+) {
+	public static CallSummary from(AgentCall call) {
+		return new CallSummary(call.id(), call.callId(), call.conversationId(), call.incidentNumber(),
+				call.priority(), call.toNumber(), call.status(), call.provider(), call.failureReason(),
+				call.createdAt(), call.lastUpdatedAt());
+	}
+}
@@ -12,6 +12,7 @@ public record CreateOutboundCallRequest(
         String description,
         @NotBlank String incidentDateTime,
         String errorDetails,
-        String possibleFix
+        String possibleFix,
+        String assignmentGroup
 ) {
 }
@@ -0,0 +1,28 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * One set of incident variables to be called out to every recipient in {@code toNumbers}.
+ */
+public record FanOutCallRequest(
+        @NotEmpty @Size(max = 100) List<@NotBlank String> toNumbers,
+        @NotBlank String incidentNumber,
+        @NotBlank String priority,
+        @NotBlank String shortDescription,
+        String description,
+        @NotBlank String incidentDateTime,
+        String errorDetails,
+        String possibleFix,
+        String assignmentGroup,
+        boolean cancelOnAcknowledge
+) {
+    public CreateOutboundCallRequest forRecipient(String toNumber) {
+        return new CreateOutboundCallRequest(toNumber, incidentNumber, priority, shortDescription, description,
+                incidentDateTime, errorDetails, possibleFix, assignmentGroup);
+    }
+}
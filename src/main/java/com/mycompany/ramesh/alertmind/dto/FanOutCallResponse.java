@@ -0,0 +1,31 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+
+import java.util.List;
+
+public record FanOutCallResponse(
+        String fanOutId,
+        int requested,
+        int initiated,
+        int failed,
+        List<Recipient> recipients
+) {
+    public static FanOutCallResponse of(String fanOutId, List<AgentCall> calls) {
+        List<Recipient> recipients = calls.stream().map(Recipient::from).toList();
+        int failed = (int) calls.stream().filter(call -> call.failureReason() != null).count();
+        return new FanOutCallResponse(fanOutId, calls.size(), calls.size() - failed, failed, recipients);
+    }
+
+    public record Recipient(
+            String toNumber,
+            String callId,
+            String conversationId,
+            String status,
+            String failureReason
+    ) {
+        static Recipient from(AgentCall call) {
+            return new Recipient(call.toNumber(), call.callId(), call.conversationId(), call.status(), call.failureReason());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import com.mycompany.ramesh.alertmind.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last item of a page, ordered by createdAt then id, both descending.
+ * Exchanged with clients as an opaque URL-safe token.
+ */
+public record PageCursor(
+		Instant createdAt,
+		String id
+) {
+	public String encode() {
+		String raw = createdAt.toEpochMilli() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static PageCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.indexOf(':');
+			return new PageCursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))),
+					raw.substring(separator + 1));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new InvalidCursorException(token);
+		}
+	}
+}
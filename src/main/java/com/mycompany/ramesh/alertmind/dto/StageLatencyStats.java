@@ -0,0 +1,19 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import java.time.Instant;
+
+/**
+ * Latency of one call stage over a window; hour is null when the window was not split by hour.
+ * Percentiles are the upper bound of the bin holding them, or the maximum for the last bin.
+ */
+public record StageLatencyStats(
+		Instant hour,
+		String stage,
+		long count,
+		double meanMillis,
+		long p50Millis,
+		long p90Millis,
+		long p99Millis,
+		long maxMillis
+) {
+}
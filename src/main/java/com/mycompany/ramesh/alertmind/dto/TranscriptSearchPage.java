@@ -0,0 +1,9 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import java.util.List;
+
+public record TranscriptSearchPage(
+		List<TranscriptSearchResult> items,
+		String nextCursor
+) {
+}
@@ -0,0 +1,33 @@
+package com.mycompany.ramesh.alertmind.dto;
+
+import com.mycompany.ramesh.alertmind.entity.TranscriptTurn;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A transcript turn matching a search, with the character ranges of {@code message} that matched
+ * the search terms.
+ */
+public record TranscriptSearchResult(
+		String id,
+		String callRecordId,
+		String callId,
+		String incidentNumber,
+		String toNumber,
+		Instant callCreatedAt,
+		int turn,
+		String role,
+		String message,
+		Integer timeInCallSecs,
+		List<Highlight> highlights
+) {
+	public record Highlight(int start, int end) {
+	}
+
+	public static TranscriptSearchResult from(TranscriptTurn turn, List<Highlight> highlights) {
+		return new TranscriptSearchResult(turn.id(), turn.callRecordId(), turn.callId(), turn.incidentNumber(),
+				turn.toNumber(), turn.callCreatedAt(), turn.turn(), turn.role(), turn.message(),
+				turn.timeInCallSecs(), highlights);
+	}
+}
@@ -2,15 +2,18 @@ package com.mycompany.ramesh.alertmind.entity;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
 @Document(collection = "agents")
+@CompoundIndex(name = "createdAt_id", def = "{ 'createdAt': -1, '_id': -1 }")
 public record Agent(
         @Id String id,
-        @Indexed(unique = true) String agentId,
+        @Indexed(unique = true, sparse = true) String agentId,
+        String incidentNumber,
         String name,
         String description,
         String voiceId,
@@ -23,7 +26,15 @@ public record Agent(
     public static Agent from(String agentId, String name, String description, 
                             String voiceId, String language, String firstMessage,
                             String systemPrompt, JsonNode rawResponse) {
-        return new Agent(null, agentId, name, description, voiceId, language, 
+        return new Agent(null, agentId, null, name, description, voiceId, language, 
                         firstMessage, systemPrompt, rawResponse, Instant.now());
     }
+
+    /**
+     * An agent created for one incident, which the agent reaper deletes once the incident is over.
+     */
+    public static Agent forIncident(String agentId, String incidentNumber, JsonNode rawResponse) {
+        return new Agent(null, agentId, incidentNumber, null, null, null, null,
+                        null, null, rawResponse, Instant.now());
+    }
 }
@@ -1,28 +1,63 @@
 package com.mycompany.ramesh.alertmind.entity;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 @Document(collection = "agent_calls")
+@CompoundIndex(name = "status_createdAt_id", def = "{ 'status': 1, 'createdAt': -1, '_id': -1 }")
+@CompoundIndex(name = "status_lastUpdatedAt", def = "{ 'status': 1, 'lastUpdatedAt': 1 }")
+@CompoundIndex(name = "incidentNumber_createdAt_id", def = "{ 'incidentNumber': 1, 'createdAt': -1, '_id': -1 }")
+@CompoundIndex(name = "toNumber_createdAt_id", def = "{ 'toNumber': 1, 'createdAt': -1, '_id': -1 }")
+@CompoundIndex(name = "priority_createdAt_id", def = "{ 'priority': 1, 'createdAt': -1, '_id': -1 }")
+@CompoundIndex(name = "createdAt_id", def = "{ 'createdAt': -1, '_id': -1 }")
 public record AgentCall(
 		@Id String id,
-		@Indexed(unique = true) String callId,
+		@Indexed(unique = true, sparse = true) String callId,
+		@Indexed(sparse = true) String conversationId,
 		String agentId,
 		String agentPhoneNumberId,
+		String provider,
 		String toNumber,
+		String incidentNumber,
+		String priority,
 		String status,
 		JsonNode requestPayload,
 		JsonNode rawResponse,
-		JsonNode transcript,
+		Instant transcriptStoredAt,
 		String failureReason,
-		Instant createdAt
+		@Indexed(sparse = true) String fanOutId,
+		Instant createdAt,
+		Instant lastUpdatedAt,
+		Map<String, Instant> statusTimestamps,
+		@Indexed(expireAfter = "0s") Instant expireAt
 ) {
+	/**
+	 * Statuses after which ElevenLabs sends no further webhooks for the call.
+	 */
+	public static final Set<String> TERMINAL_STATUSES = Set.of(
+			"completed", "ended", "initiation_failed", "busy", "no_answer",
+			"failed", "canceled", "unreachable", "rejected");
+
+	public static boolean isTerminalStatus(String status) {
+		return status != null && TERMINAL_STATUSES.contains(status.toLowerCase());
+	}
+
+	/**
+	 * Records are created with their id assigned, so pending writes can be coalesced per document
+	 * before the first insert.
+	 */
 	public static AgentCall fromRequest(String toNumber, JsonNode requestPayload) {
-		return new AgentCall(null, null, null, null, toNumber, "created", requestPayload, null, null, null, Instant.now());
+		Instant now = Instant.now();
+		return new AgentCall(newId(), null, null, null, null, null, toNumber, textOf(requestPayload, "incidentNumber"), textOf(requestPayload, "priority"), "created", requestPayload, null, null, null, null, now, now, Map.of("created", now), null);
 	}
 
 	public static AgentCall fromResponse(String callId,
@@ -31,22 +66,76 @@ public record AgentCall(
 							 String toNumber,
 							 String status,
 							 JsonNode rawResponse) {
-		return new AgentCall(null, callId, agentId, agentPhoneNumberId, toNumber, status, null, rawResponse, null, null, Instant.now());
+		Instant now = Instant.now();
+		return new AgentCall(newId(), callId, conversationIdOf(rawResponse, null), agentId, agentPhoneNumberId, null, toNumber, null, null, status, null, rawResponse, null, null, null, now, now, timestampOf(status, now), null);
+	}
+
+	public AgentCall withUpdatedResponse(String provider, String callId, String agentId, String agentPhoneNumberId, String status, JsonNode rawResponse) {
+		return new AgentCall(this.id, callId, conversationIdOf(rawResponse, this.conversationId), agentId, agentPhoneNumberId, provider, this.toNumber, this.incidentNumber, this.priority, status, this.requestPayload, rawResponse, this.transcriptStoredAt, this.failureReason, this.fanOutId, this.createdAt, Instant.now(), timestampsWith(status), this.expireAt);
 	}
 
-	public AgentCall withUpdatedResponse(String callId, String agentId, String agentPhoneNumberId, String status, JsonNode rawResponse) {
-		return new AgentCall(this.id, callId, agentId, agentPhoneNumberId, this.toNumber, status, this.requestPayload, rawResponse, this.transcript, this.failureReason, this.createdAt);
+	/**
+	 * Tags the call as one of the recipients of a multi-recipient callout.
+	 */
+	public AgentCall withFanOut(String fanOutId) {
+		return new AgentCall(this.id, this.callId, this.conversationId, this.agentId, this.agentPhoneNumberId, this.provider, this.toNumber, this.incidentNumber, this.priority, this.status, this.requestPayload, this.rawResponse, this.transcriptStoredAt, this.failureReason, fanOutId, this.createdAt, this.lastUpdatedAt, this.statusTimestamps, this.expireAt);
 	}
 
-	public AgentCall withTranscript(JsonNode transcript) {
-		return new AgentCall(this.id, this.callId, this.agentId, this.agentPhoneNumberId, this.toNumber, this.status, this.requestPayload, this.rawResponse, transcript, this.failureReason, this.createdAt);
+	/**
+	 * Marks the transcript as saved; the transcript itself lives in the call payload store.
+	 */
+	public AgentCall withTranscriptStored(Instant transcriptStoredAt) {
+		return new AgentCall(this.id, this.callId, this.conversationId, this.agentId, this.agentPhoneNumberId, this.provider, this.toNumber, this.incidentNumber, this.priority, this.status, this.requestPayload, this.rawResponse, transcriptStoredAt, this.failureReason, this.fanOutId, this.createdAt, Instant.now(), this.statusTimestamps, this.expireAt);
 	}
 
 	public AgentCall withStatusUpdate(String status, JsonNode rawResponse) {
-		return new AgentCall(this.id, this.callId, this.agentId, this.agentPhoneNumberId, this.toNumber, status, this.requestPayload, rawResponse, this.transcript, this.failureReason, this.createdAt);
+		return new AgentCall(this.id, this.callId, conversationIdOf(rawResponse, this.conversationId), this.agentId, this.agentPhoneNumberId, this.provider, this.toNumber, this.incidentNumber, this.priority, status, this.requestPayload, rawResponse, this.transcriptStoredAt, this.failureReason, this.fanOutId, this.createdAt, Instant.now(), timestampsWith(status), this.expireAt);
 	}
 
+	/**
+	 * Marks the call failed, keeping a more specific terminal status such as no_answer or busy.
+	 */
 	public AgentCall withFailure(String failureReason) {
-		return new AgentCall(this.id, this.callId, this.agentId, this.agentPhoneNumberId, this.toNumber, "failed", this.requestPayload, this.rawResponse, this.transcript, failureReason, this.createdAt);
+		String failedStatus = isTerminalStatus(this.status) ? this.status : "failed";
+		return new AgentCall(this.id, this.callId, this.conversationId, this.agentId, this.agentPhoneNumberId, this.provider, this.toNumber, this.incidentNumber, this.priority, failedStatus, this.requestPayload, this.rawResponse, this.transcriptStoredAt, failureReason, this.fanOutId, this.createdAt, Instant.now(), timestampsWith(failedStatus), this.expireAt);
+	}
+
+	/**
+	 * When the call first reached the given status, or null if it never did.
+	 */
+	public Instant statusTimestamp(String status) {
+		return statusTimestamps != null && status != null ? statusTimestamps.get(status.toLowerCase()) : null;
+	}
+
+	/**
+	 * Timestamps with the first time the call reached {@code status} added; repeated webhooks for
+	 * a status keep the original time.
+	 */
+	private Map<String, Instant> timestampsWith(String status) {
+		if (status == null || statusTimestamp(status) != null) {
+			return statusTimestamps;
+		}
+		Map<String, Instant> updated = statusTimestamps != null ? new LinkedHashMap<>(statusTimestamps) : new LinkedHashMap<>();
+		updated.put(status.toLowerCase(), Instant.now());
+		return updated;
+	}
+
+	private static Map<String, Instant> timestampOf(String status, Instant at) {
+		return status != null ? Map.of(status.toLowerCase(), at) : null;
+	}
+
+	private static String newId() {
+		return new ObjectId().toHexString();
+	}
+
+	private static String textOf(JsonNode payload, String field) {
+		return payload != null && payload.hasNonNull(field) ? payload.get(field).asText() : null;
+	}
+
+	private static String conversationIdOf(JsonNode rawResponse, String fallback) {
+		if (rawResponse != null && rawResponse.hasNonNull("conversation_id")) {
+			return rawResponse.get("conversation_id").asText();
+		}
+		return fallback;
 	}
 }
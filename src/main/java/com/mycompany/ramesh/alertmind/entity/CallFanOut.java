@@ -0,0 +1,23 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One callout to several recipients. The {@link AgentCall}s it created carry its id as
+ * {@code fanOutId}; {@code acknowledgedBy} is set by the first of them to be answered.
+ */
+@Document(collection = "call_fan_outs")
+public record CallFanOut(
+		@Id String id,
+		String incidentNumber,
+		List<String> toNumbers,
+		boolean cancelOnAcknowledge,
+		String acknowledgedBy,
+		Instant acknowledgedAt,
+		Instant createdAt
+) {
+}
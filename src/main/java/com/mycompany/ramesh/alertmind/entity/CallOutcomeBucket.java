@@ -0,0 +1,30 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Pre-aggregated outcomes of the calls created in one hour for one assignment group and called
+ * number. Buckets are only ever changed with {@code $inc}, as calls transition, so reading a
+ * dashboard never has to touch {@code agent_calls}.
+ */
+@Document(collection = "call_outcome_buckets")
+@CompoundIndex(name = "hour_group_number", def = "{ 'hour': 1, 'assignmentGroup': 1, 'toNumber': 1 }")
+public record CallOutcomeBucket(
+		@Id String id,
+		Instant hour,
+		String assignmentGroup,
+		String toNumber,
+		long calls,
+		long answered,
+		Map<String, Long> outcomes,
+		Map<String, Long> failureReasons,
+		long acknowledged,
+		long ackMillisTotal,
+		Map<String, Long> ackHistogram
+) {
+}
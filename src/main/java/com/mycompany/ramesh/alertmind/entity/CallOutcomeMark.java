@@ -0,0 +1,19 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Records that one kind of transition of a call, {@code answered} or {@code terminal}, has been
+ * counted in its {@link CallOutcomeBucket}. The id is {@code <call id>|<kind>}, so a second
+ * insert for the same call fails on the primary key and the transition is not counted twice.
+ */
+@Document(collection = "call_outcome_marks")
+public record CallOutcomeMark(
+		@Id String id,
+		@Indexed(expireAfter = "0s") Instant expireAt
+) {
+}
@@ -0,0 +1,27 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Large, rarely read payload of an {@link AgentCall}, kept out of {@code agent_calls} so the hot
+ * documents stay small. The payload is deflate-compressed JSON, stored inline in {@code data} or,
+ * above the GridFS threshold, in the GridFS file {@code gridFsFileId}. Payloads have no TTL:
+ * retention archives them together with their GridFS content and then deletes both.
+ */
+@Document(collection = "agent_call_payloads")
+public record CallPayload(
+		@Id String id,
+		@Indexed String callRecordId,
+		String kind,
+		String encoding,
+		int uncompressedSize,
+		int compressedSize,
+		byte[] data,
+		String gridFsFileId,
+		@Indexed Instant storedAt
+) {
+}
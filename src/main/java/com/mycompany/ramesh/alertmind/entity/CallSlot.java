@@ -0,0 +1,20 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One unit of the cluster-wide concurrent call quota. A slot is free when it has no holder
+ * or when its lease has expired, so slots leaked by a crashed node are reclaimed automatically.
+ */
+@Document(collection = "call_slots")
+public record CallSlot(
+		@Id String id,
+		int slotIndex,
+		String holder,
+		Instant acquiredAt,
+		Instant expiresAt
+) {
+}
@@ -0,0 +1,27 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Binned latencies of the call stages completed in one hour, keyed by stage name. Like
+ * {@link CallOutcomeBucket} it is only changed with {@code $inc} and {@code $max}.
+ */
+@Document(collection = "call_stage_buckets")
+public record CallStageBucket(
+		@Id String id,
+		@Indexed Instant hour,
+		Map<String, StageHistogram> stages
+) {
+	public record StageHistogram(
+			long count,
+			long totalMillis,
+			long maxMillis,
+			Map<String, Long> bins
+	) {
+	}
+}
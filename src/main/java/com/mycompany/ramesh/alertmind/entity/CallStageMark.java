@@ -0,0 +1,19 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Records that one stage of a call has been counted in its {@link CallStageBucket}. The id is
+ * {@code <call id>|<stage>}, so a replayed webhook or a second writer of the same transition fails
+ * on the primary key and the stage is not counted twice.
+ */
+@Document(collection = "call_stage_marks")
+public record CallStageMark(
+		@Id String id,
+		@Indexed(expireAfter = "0s") Instant expireAt
+) {
+}
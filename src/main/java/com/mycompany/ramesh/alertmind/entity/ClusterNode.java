@@ -0,0 +1,14 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "cluster_nodes")
+public record ClusterNode(
+		@Id String nodeId,
+		Instant startedAt,
+		Instant lastHeartbeat
+) {
+}
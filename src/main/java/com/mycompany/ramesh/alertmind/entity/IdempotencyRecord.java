@@ -0,0 +1,37 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * The outcome of a request made with an idempotency key. The record is inserted as
+ * {@code IN_PROGRESS} when the first request claims the key, holding the claim until
+ * {@code expireAt}, and turns {@code COMPLETED} with the response once that request succeeds.
+ * The id is {@code <scope>:<key>}.
+ */
+@Document(collection = "idempotency_keys")
+public record IdempotencyRecord(
+		@Id String id,
+		String requestHash,
+		String state,
+		Integer statusCode,
+		JsonNode responseBody,
+		Instant createdAt,
+		Instant completedAt,
+		@Indexed(expireAfter = "0s") Instant expireAt
+) {
+	public static final String IN_PROGRESS = "IN_PROGRESS";
+	public static final String COMPLETED = "COMPLETED";
+
+	public static IdempotencyRecord claim(String id, String requestHash, Instant leaseUntil) {
+		return new IdempotencyRecord(id, requestHash, IN_PROGRESS, null, null, Instant.now(), null, leaseUntil);
+	}
+
+	public boolean isCompleted() {
+		return COMPLETED.equals(state);
+	}
+}
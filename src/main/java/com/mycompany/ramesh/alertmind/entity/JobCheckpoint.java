@@ -0,0 +1,21 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * How far a background job got through a pass over its collection, as the (createdAt, _id) of
+ * the last document it finished. A job picked up by another instance or after a restart
+ * continues from here instead of starting the pass over.
+ */
+@Document(collection = "job_checkpoints")
+public record JobCheckpoint(
+		@Id String job,
+		Instant lastCreatedAt,
+		String lastId,
+		Instant passStartedAt,
+		Instant updatedAt
+) {
+}
@@ -0,0 +1,18 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Records that a one-off data migration has completed against this database, so later starts
+ * skip it. The id is the migration name.
+ */
+@Document(collection = "migrations")
+public record MigrationMarker(
+		@Id String name,
+		long documentsMigrated,
+		Instant completedAt
+) {
+}
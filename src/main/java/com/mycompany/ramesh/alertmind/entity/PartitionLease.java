@@ -0,0 +1,18 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Ownership of one work partition. A partition is free when it has no owner or when the
+ * owner stopped renewing the lease.
+ */
+@Document(collection = "partition_leases")
+public record PartitionLease(
+		@Id Integer partition,
+		String owner,
+		Instant expiresAt
+) {
+}
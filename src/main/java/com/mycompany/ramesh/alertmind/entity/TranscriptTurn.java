@@ -0,0 +1,34 @@
+package com.mycompany.ramesh.alertmind.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One turn of a call transcript, extracted when the transcript is stored so it can be found
+ * through the text index on {@code message}. The full transcript stays in the call payload store.
+ * {@code month} is the UTC {@code yyyy-MM} of the call's creation and prefixes the text index, so
+ * a search only reads the index entries of the months it covers.
+ * The id is {@code <callRecordId>:<turn>}, so indexing a transcript again replaces its turns.
+ * Turns expire with their call: retention sets {@code expireAt} on both once the call is archived.
+ */
+@Document(collection = "call_transcript_turns")
+@CompoundIndex(name = "callRecordId_turn", def = "{ 'callRecordId': 1, 'turn': 1 }")
+public record TranscriptTurn(
+		@Id String id,
+		String callRecordId,
+		String callId,
+		@Indexed(sparse = true) String incidentNumber,
+		String toNumber,
+		int turn,
+		String role,
+		String message,
+		Integer timeInCallSecs,
+		Instant callCreatedAt,
+		@Indexed String month,
+		@Indexed(expireAfter = "0s") Instant expireAt
+) {
+}
@@ -1,15 +1,40 @@
 package com.mycompany.ramesh.alertmind.exception;
 
+import com.mycompany.ramesh.alertmind.config.LoadSheddingWebFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebExchange;
 
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
 	@ExceptionHandler(UpstreamServiceException.class)
-	public ResponseEntity<ApiErrorResponse> handleUpstreamServiceException(UpstreamServiceException ex) {
+	public ResponseEntity<ApiErrorResponse> handleUpstreamServiceException(UpstreamServiceException ex, ServerWebExchange exchange) {
+		exchange.getAttributes().put(LoadSheddingWebFilter.UPSTREAM_STATUS_ATTRIBUTE, ex.getStatus());
 		var body = new ApiErrorResponse("Upstream service error", ex.getResponseBody());
 		return ResponseEntity.status(ex.getStatus()).body(body);
 	}
+
+	@ExceptionHandler(InvalidCursorException.class)
+	public ResponseEntity<ApiErrorResponse> handleInvalidCursorException(InvalidCursorException ex) {
+		var body = new ApiErrorResponse("Invalid request", ex.getMessage());
+		return ResponseEntity.badRequest().body(body);
+	}
+
+	@ExceptionHandler(IdempotencyKeyMismatchException.class)
+	public ResponseEntity<ApiErrorResponse> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex) {
+		var body = new ApiErrorResponse("Idempotency key reused", ex.getMessage());
+		return ResponseEntity.unprocessableEntity().body(body);
+	}
+
+	@ExceptionHandler(CallQuotaExceededException.class)
+	public ResponseEntity<ApiErrorResponse> handleCallQuotaExceededException(CallQuotaExceededException ex) {
+		var body = new ApiErrorResponse("Concurrent call quota exceeded", ex.getMessage());
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+				.body(body);
+	}
 }
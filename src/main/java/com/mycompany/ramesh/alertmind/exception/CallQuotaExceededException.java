@@ -0,0 +1,17 @@
+package com.mycompany.ramesh.alertmind.exception;
+
+import java.time.Duration;
+
+public class CallQuotaExceededException extends RuntimeException {
+
+	private final Duration retryAfter;
+
+	public CallQuotaExceededException(int maxConcurrentCalls, Duration retryAfter) {
+		super("All " + maxConcurrentCalls + " concurrent call slots are in use");
+		this.retryAfter = retryAfter;
+	}
+
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+}
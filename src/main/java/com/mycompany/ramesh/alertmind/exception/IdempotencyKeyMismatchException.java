@@ -0,0 +1,8 @@
+package com.mycompany.ramesh.alertmind.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+	public IdempotencyKeyMismatchException(String key) {
+		super("Idempotency key " + key + " was already used for a different request");
+	}
+}
@@ -0,0 +1,8 @@
+package com.mycompany.ramesh.alertmind.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+	public InvalidCursorException(String cursor) {
+		super("Invalid page cursor: " + cursor);
+	}
+}
@@ -1,9 +1,19 @@
 package com.mycompany.ramesh.alertmind.repository;
 
 import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface AgentCallRepository extends ReactiveMongoRepository<AgentCall, String> {
 	Mono<AgentCall> findByCallId(String callId);
+
+	Mono<AgentCall> findFirstByConversationId(String conversationId);
+
+	@Query(value = "{ '$or': [ { 'callId': { '$in': ?0 } }, { 'conversationId': { '$in': ?1 } } ] }",
+			fields = "{ 'callId': 1, 'conversationId': 1, 'status': 1 }")
+	Flux<AgentCall> findStatusesByCallIdInOrConversationIdIn(Collection<String> callIds, Collection<String> conversationIds);
 }
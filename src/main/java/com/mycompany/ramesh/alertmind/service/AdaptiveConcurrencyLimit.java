@@ -0,0 +1,93 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to latency in the style of TCP Vegas. The lowest observed
+ * latency is taken as the no-load latency; the ratio between it and the latency of each request
+ * estimates how many requests are queueing. The limit grows while that queue is short, shrinks
+ * when it grows long and is cut multiplicatively when requests fail or are shed downstream.
+ * The no-load latency is re-measured every probe interval so the limit can recover after the
+ * dependency got permanently slower or faster.
+ */
+public class AdaptiveConcurrencyLimit {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final long probeIntervalNanos;
+	private final AtomicInteger inflight = new AtomicInteger();
+	private volatile double limit;
+	private long noLoadRttNanos;
+	private long lastProbeNanos = System.nanoTime();
+
+	public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration probeInterval) {
+		this.minLimit = minLimit;
+		this.maxLimit = Math.max(minLimit, maxLimit);
+		this.backoffRatio = backoffRatio;
+		this.probeIntervalNanos = probeInterval.toNanos();
+		this.limit = Math.clamp(initialLimit, minLimit, this.maxLimit);
+	}
+
+	/**
+	 * Admits a request if fewer than {@link #limit()} are in flight. Every admitted request must
+	 * be followed by exactly one {@link #release}.
+	 */
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inflight.get();
+			if (current >= (int) limit) {
+				return false;
+			}
+			if (inflight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Completes an admitted request and feeds its latency into the limit.
+	 *
+	 * @param rttNanos         time from admission to completion
+	 * @param inflightAtStart  requests in flight when it was admitted, itself included
+	 * @param dropped          whether it failed or was shed further down, a sign of overload
+	 */
+	public void release(long rttNanos, int inflightAtStart, boolean dropped) {
+		inflight.decrementAndGet();
+		update(rttNanos, inflightAtStart, dropped);
+	}
+
+	public int limit() {
+		return (int) limit;
+	}
+
+	public int inflight() {
+		return inflight.get();
+	}
+
+	private synchronized void update(long rttNanos, int inflightAtStart, boolean dropped) {
+		if (dropped) {
+			limit = Math.max(minLimit, limit * backoffRatio);
+			return;
+		}
+		long now = System.nanoTime();
+		if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos || now - lastProbeNanos > probeIntervalNanos) {
+			noLoadRttNanos = rttNanos;
+			lastProbeNanos = now;
+			return;
+		}
+		// Far below the limit the latency says nothing about whether the limit could be higher
+		if (inflightAtStart * 2 < limit) {
+			return;
+		}
+
+		double queueSize = Math.ceil(limit * (1 - (double) noLoadRttNanos / rttNanos));
+		double step = Math.max(1, Math.log10(limit));
+		if (queueSize <= 3 * step) {
+			limit = Math.min(maxLimit, limit + step);
+		} else if (queueSize >= 6 * step) {
+			limit = Math.max(minLimit, limit - step);
+		}
+	}
+}
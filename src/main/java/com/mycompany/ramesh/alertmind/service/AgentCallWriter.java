@@ -0,0 +1,260 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.config.WriteBehindProperties;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import com.mycompany.ramesh.alertmind.repository.AgentCallRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind persistence for {@link AgentCall} records. Saves are held for a short window,
+ * coalesced per document so only the latest version is written, and flushed together as one
+ * unordered bulk write. The Mono returned by {@link #save(AgentCall)} completes once the batch
+ * holding the write is acknowledged, so callers keep read-your-writes semantics.
+ * <p>
+ * Writes to one document are never in flight concurrently: a document is written by one flush at
+ * a time, and when {@code max-pending} documents are waiting further saves queue up, in order,
+ * until a flush makes room instead of being written around the buffer.
+ */
+@Service
+public class AgentCallWriter {
+
+	private static final Logger log = LoggerFactory.getLogger(AgentCallWriter.class);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final AgentCallRepository agentCallRepository;
+	private final WriteBehindProperties properties;
+	private final Map<String, PendingWrite> pending = new ConcurrentHashMap<>();
+	// Saves waiting for room in pending, oldest first; guarded by this
+	private final Queue<QueuedWrite> queued = new ArrayDeque<>();
+	private final AtomicBoolean flushing = new AtomicBoolean();
+	private final Timer flushTimer;
+	private final DistributionSummary batchSize;
+	private final Counter coalescedWrites;
+	private final Counter queuedWrites;
+	private final Disposable flushTicker;
+
+	public AgentCallWriter(ReactiveMongoTemplate mongoTemplate,
+						   AgentCallRepository agentCallRepository,
+						   WriteBehindProperties properties,
+						   MeterRegistry meterRegistry) {
+		this.mongoTemplate = mongoTemplate;
+		this.agentCallRepository = agentCallRepository;
+		this.properties = properties;
+		this.flushTimer = Timer.builder("alertmind.write_behind.flush")
+				.description("Time to flush one batch of agent call writes")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		this.batchSize = DistributionSummary.builder("alertmind.write_behind.batch.size")
+				.description("Documents written per flush")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		this.coalescedWrites = Counter.builder("alertmind.write_behind.coalesced")
+				.description("Writes superseded by a later write to the same document before flushing")
+				.register(meterRegistry);
+		this.queuedWrites = Counter.builder("alertmind.write_behind.queued")
+				.description("Writes held back until a flush made room in the full write-behind buffer")
+				.register(meterRegistry);
+		Gauge.builder("alertmind.write_behind.pending", pending, Map::size)
+				.description("Documents waiting to be flushed")
+				.register(meterRegistry);
+		this.flushTicker = properties.enabled()
+				? Flux.interval(properties.flushInterval())
+						.onBackpressureDrop()
+						.subscribe(tick -> triggerFlush())
+				: null;
+	}
+
+	/**
+	 * Saves the call, completing with the saved record once it has been written. Records must
+	 * carry an id so writes to the same document can be coalesced.
+	 */
+	public Mono<AgentCall> save(AgentCall call) {
+		if (!properties.enabled() || call.id() == null) {
+			return agentCallRepository.save(call);
+		}
+		return Mono.<AgentCall>create(sink -> {
+			boolean admitted;
+			synchronized (this) {
+				// Behind earlier queued saves, which may be older versions of the same document
+				admitted = queued.isEmpty() && hasRoomFor(call.id());
+				if (admitted) {
+					addPending(call, sink);
+				} else {
+					queued.add(new QueuedWrite(call, sink));
+				}
+			}
+			if (!admitted) {
+				queuedWrites.increment();
+				triggerFlush();
+			} else if (pending.size() >= properties.maxBatchSize()) {
+				triggerFlush();
+			}
+		});
+	}
+
+	private boolean hasRoomFor(String id) {
+		return pending.size() < properties.maxPending() || pending.containsKey(id);
+	}
+
+	private void addPending(AgentCall call, MonoSink<AgentCall> sink) {
+		pending.compute(call.id(), (id, existing) -> {
+			if (existing == null) {
+				return new PendingWrite(call, sink);
+			}
+			coalescedWrites.increment();
+			return existing.supersededBy(call, sink);
+		});
+	}
+
+	/**
+	 * Moves queued saves into pending, in order, while there is room.
+	 */
+	private synchronized void admitQueued() {
+		while (!queued.isEmpty() && hasRoomFor(queued.peek().call().id())) {
+			QueuedWrite next = queued.poll();
+			addPending(next.call(), next.sink());
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (flushTicker != null) {
+			flushTicker.dispose();
+		}
+		// Wait for an in-flight flush, then write whatever is left
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (hasWork() && System.nanoTime() < deadline) {
+			if (flushing.compareAndSet(false, true)) {
+				flush().doFinally(signal -> flushing.set(false)).block(Duration.ofSeconds(10));
+				admitQueued();
+			} else {
+				Thread.onSpinWait();
+			}
+		}
+		if (hasWork()) {
+			log.error("{} agent call writes were not flushed before shutdown", pending.size() + queuedCount());
+		}
+	}
+
+	private boolean hasWork() {
+		return !pending.isEmpty() || queuedCount() > 0;
+	}
+
+	private synchronized int queuedCount() {
+		return queued.size();
+	}
+
+	private void triggerFlush() {
+		if (pending.isEmpty() || !flushing.compareAndSet(false, true)) {
+			return;
+		}
+		flush()
+				.doFinally(signal -> {
+					flushing.set(false);
+					admitQueued();
+					// A buffer that is still full holds back queued saves, so it is flushed right away
+					if (pending.size() >= properties.maxBatchSize() || pending.size() >= properties.maxPending()) {
+						triggerFlush();
+					}
+				})
+				.subscribe();
+	}
+
+	/**
+	 * Takes up to one batch of pending writes and writes it with a single unordered bulk
+	 * operation. If the bulk write fails the documents are saved one by one, so a bad document
+	 * only fails its own callers.
+	 */
+	private Mono<Void> flush() {
+		List<PendingWrite> batch = new ArrayList<>(Math.min(pending.size(), properties.maxBatchSize()));
+		for (String id : pending.keySet()) {
+			if (batch.size() >= properties.maxBatchSize()) {
+				break;
+			}
+			PendingWrite write = pending.remove(id);
+			if (write != null) {
+				batch.add(write);
+			}
+		}
+		if (batch.isEmpty()) {
+			return Mono.empty();
+		}
+
+		ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AgentCall.class);
+		for (PendingWrite write : batch) {
+			bulk.replaceOne(Query.query(Criteria.where("_id").is(write.call().id())), write.call(),
+					FindAndReplaceOptions.options().upsert());
+		}
+
+		long start = System.nanoTime();
+		return bulk.execute()
+				.doOnSuccess(result -> {
+					flushTimer.record(Duration.ofNanos(System.nanoTime() - start));
+					batchSize.record(batch.size());
+					batch.forEach(PendingWrite::complete);
+				})
+				.then()
+				.onErrorResume(error -> {
+					log.warn("Bulk write of {} agent calls failed, saving individually: {}", batch.size(), error.getMessage());
+					return Flux.fromIterable(batch)
+							.flatMap(write -> agentCallRepository.save(write.call())
+									.doOnNext(saved -> write.complete())
+									.onErrorResume(saveError -> {
+										write.fail(saveError);
+										return Mono.empty();
+									}))
+							.then();
+				});
+	}
+
+	private record QueuedWrite(AgentCall call, MonoSink<AgentCall> sink) {
+	}
+
+	private record PendingWrite(AgentCall call, List<MonoSink<AgentCall>> waiters) {
+
+		PendingWrite(AgentCall call, MonoSink<AgentCall> waiter) {
+			this(call, new ArrayList<>(List.of(waiter)));
+		}
+
+		PendingWrite supersededBy(AgentCall newer, MonoSink<AgentCall> waiter) {
+			List<MonoSink<AgentCall>> all = new ArrayList<>(waiters);
+			all.add(waiter);
+			return new PendingWrite(newer, all);
+		}
+
+		void complete() {
+			waiters.forEach(waiter -> waiter.success(call));
+		}
+
+		void fail(Throwable error) {
+			waiters.forEach(waiter -> waiter.error(error));
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.dto.AgentPage;
+import com.mycompany.ramesh.alertmind.dto.AgentSummary;
+import com.mycompany.ramesh.alertmind.dto.PageCursor;
+import com.mycompany.ramesh.alertmind.entity.Agent;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Agent listings that leave out the prompts and raw ElevenLabs response, ordered newest first
+ * on the (createdAt, _id) index so every page is an index range scan regardless of its position.
+ */
+@Service
+public class AgentQueryService {
+
+	private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "_id");
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	public AgentQueryService(ReactiveMongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	public Mono<AgentPage> findPage(String cursor, int limit) {
+		Query query = summaryQuery(cursor != null ? PageCursor.decode(cursor) : null)
+				.limit(limit + 1);
+
+		return mongoTemplate.find(query, Agent.class)
+				.map(AgentSummary::from)
+				.collectList()
+				.map(summaries -> {
+					if (summaries.size() <= limit) {
+						return new AgentPage(summaries, null);
+					}
+					List<AgentSummary> items = summaries.subList(0, limit);
+					AgentSummary last = items.get(limit - 1);
+					return new AgentPage(List.copyOf(items), new PageCursor(last.createdAt(), last.id()).encode());
+				});
+	}
+
+	/**
+	 * All agent summaries, read through a single cursor and emitted as they arrive so memory use
+	 * does not depend on the size of the collection.
+	 */
+	public Flux<AgentSummary> streamAll() {
+		return mongoTemplate.find(summaryQuery(null), Agent.class)
+				.map(AgentSummary::from);
+	}
+
+	private static Query summaryQuery(PageCursor after) {
+		Query query = new Query().with(NEWEST_FIRST);
+		if (after != null) {
+			query.addCriteria(new Criteria().orOperator(
+					Criteria.where("createdAt").lt(after.createdAt()),
+					Criteria.where("createdAt").is(after.createdAt()).and("_id").lt(after.id())));
+		}
+		query.fields().include("agentId", "name", "description", "voiceId", "language", "createdAt");
+		return query;
+	}
+}
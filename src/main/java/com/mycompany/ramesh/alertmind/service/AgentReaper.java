@@ -0,0 +1,194 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.config.AgentReaperProperties;
+import com.mycompany.ramesh.alertmind.entity.Agent;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import com.mycompany.ramesh.alertmind.entity.JobCheckpoint;
+import com.mycompany.ramesh.alertmind.exception.UpstreamServiceException;
+import com.mycompany.ramesh.alertmind.repository.AgentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Deletes the ElevenLabs agents created for incidents once the incident is over: when none of
+ * its calls is still in flight and the agent is older than {@code resolved-after}, or in any
+ * case once it is older than {@code max-age}. Each pass walks the incident agents oldest first
+ * along the (createdAt, _id) index, a batch at a time, deleting at a bounded rate and
+ * concurrency upstream and then from {@code agents}. The position is checkpointed after every
+ * batch, so a pass interrupted by a restart or a change of owner continues where it stopped.
+ */
+@Service
+public class AgentReaper {
+
+	private static final Logger log = LoggerFactory.getLogger(AgentReaper.class);
+	private static final String JOB_KEY = "agent-reaper";
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ElevenLabsClient elevenLabsClient;
+	private final AgentRepository agentRepository;
+	private final AgentReaperProperties properties;
+	private final PartitionOwnershipService partitionOwnershipService;
+	private final MeterRegistry meterRegistry;
+	private final AtomicBoolean running = new AtomicBoolean();
+	private final AtomicReference<Instant> position = new AtomicReference<>();
+
+	public AgentReaper(ReactiveMongoTemplate mongoTemplate,
+					   ElevenLabsClient elevenLabsClient,
+					   AgentRepository agentRepository,
+					   AgentReaperProperties properties,
+					   PartitionOwnershipService partitionOwnershipService,
+					   MeterRegistry meterRegistry) {
+		this.mongoTemplate = mongoTemplate;
+		this.elevenLabsClient = elevenLabsClient;
+		this.agentRepository = agentRepository;
+		this.properties = properties;
+		this.partitionOwnershipService = partitionOwnershipService;
+		this.meterRegistry = meterRegistry;
+		// How far behind now the pass in progress is; 0 between passes
+		meterRegistry.gauge("alertmind.agent_reaper.position_age_seconds", position, current -> {
+			Instant at = current.get();
+			return at != null ? Math.max(0, Duration.between(at, Instant.now()).toSeconds()) : 0;
+		});
+	}
+
+	@Scheduled(fixedDelayString = "${app.agent-reaper.sweep-interval}", initialDelayString = "${app.agent-reaper.sweep-interval}")
+	public Mono<Void> sweep() {
+		if (!properties.enabled() || !partitionOwnershipService.isLeader(JOB_KEY) || !running.compareAndSet(false, true)) {
+			return Mono.empty();
+		}
+		Instant now = Instant.now();
+		Instant resolvedCutoff = now.minus(properties.resolvedAfter());
+		Instant expiredCutoff = now.minus(properties.maxAge());
+		Duration spacing = Duration.ofNanos(Duration.ofSeconds(1).toNanos() / properties.ratePerSecond());
+
+		return mongoTemplate.findById(JOB_KEY, JobCheckpoint.class)
+				.defaultIfEmpty(new JobCheckpoint(JOB_KEY, null, null, now, now))
+				.flatMapMany(checkpoint -> page(resolvedCutoff, checkpoint)
+						.expand(batch -> batch.size() < properties.batchSize()
+								? Mono.empty()
+								: page(resolvedCutoff, advance(checkpoint, batch)))
+						.concatMap(batch -> reapBatch(batch, expiredCutoff, spacing)
+								.then(saveCheckpoint(batch.size() < properties.batchSize()
+										? new JobCheckpoint(JOB_KEY, null, null, Instant.now(), Instant.now())
+										: advance(checkpoint, batch)))
+								.thenReturn(batch.size())))
+				.scan(0, Integer::sum)
+				.takeUntil(total -> total >= properties.maxPerSweep())
+				.last(0)
+				.doOnNext(total -> {
+					if (total > 0) {
+						log.info("Agent reaper checked {} incident agents", total);
+					}
+				})
+				.onErrorResume(error -> {
+					log.error("Agent reaper sweep failed: {}", error.getMessage(), error);
+					return Mono.empty();
+				})
+				.doFinally(signal -> running.set(false))
+				.then();
+	}
+
+	/**
+	 * The next batch of incident agents created before {@code cutoff}, after the checkpoint
+	 * position. Agents that are kept stay behind the position until the next pass.
+	 */
+	private Mono<List<Agent>> page(Instant cutoff, JobCheckpoint after) {
+		Criteria criteria = Criteria.where("incidentNumber").ne(null).and("createdAt").lt(cutoff);
+		if (after.lastCreatedAt() != null) {
+			criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+					Criteria.where("createdAt").gt(after.lastCreatedAt()),
+					Criteria.where("createdAt").is(after.lastCreatedAt()).and("_id").gt(after.lastId())));
+		}
+		Query query = Query.query(criteria)
+				.with(Sort.by("createdAt", "_id"))
+				.limit(properties.batchSize());
+		query.fields().include("agentId", "incidentNumber", "createdAt");
+		return mongoTemplate.find(query, Agent.class).collectList();
+	}
+
+	private static JobCheckpoint advance(JobCheckpoint checkpoint, List<Agent> batch) {
+		Agent last = batch.get(batch.size() - 1);
+		return new JobCheckpoint(JOB_KEY, last.createdAt(), last.id(), checkpoint.passStartedAt(), Instant.now());
+	}
+
+	private Mono<JobCheckpoint> saveCheckpoint(JobCheckpoint checkpoint) {
+		position.set(checkpoint.lastCreatedAt());
+		return mongoTemplate.save(checkpoint);
+	}
+
+	private Mono<Void> reapBatch(List<Agent> batch, Instant expiredCutoff, Duration spacing) {
+		return Flux.fromIterable(batch)
+				.delayElements(spacing)
+				.flatMap(agent -> reap(agent, expiredCutoff), properties.concurrency())
+				.then();
+	}
+
+	/**
+	 * Deletes the agent if its incident is over. Failures are counted and the agent is left for
+	 * the next pass.
+	 */
+	private Mono<Void> reap(Agent agent, Instant expiredCutoff) {
+		Mono<Boolean> over = agent.createdAt().isBefore(expiredCutoff)
+				? Mono.just(true)
+				: incidentHasNoCallsInFlight(agent.incidentNumber());
+		return over
+				.flatMap(reapable -> {
+					if (!reapable) {
+						count("kept");
+						return Mono.empty();
+					}
+					return deleteUpstream(agent)
+							.flatMap(outcome -> agentRepository.deleteById(agent.id())
+									.doOnSuccess(v -> {
+										log.info("Reaped agent {} of incident {}", agent.agentId(), agent.incidentNumber());
+										count(outcome);
+									}));
+				})
+				.onErrorResume(error -> {
+					log.warn("Failed to reap agent {}: {}", agent.agentId(), error.getMessage());
+					count("failed");
+					return Mono.empty();
+				});
+	}
+
+	private Mono<Boolean> incidentHasNoCallsInFlight(String incidentNumber) {
+		Query inFlight = Query.query(Criteria.where("incidentNumber").is(incidentNumber)
+				.and("status").nin(AgentCall.TERMINAL_STATUSES));
+		return mongoTemplate.exists(inFlight, AgentCall.class).map(exists -> !exists);
+	}
+
+	/**
+	 * An agent already deleted upstream, by hand or by an earlier pass that died before removing
+	 * the record, only needs its record removed.
+	 */
+	private Mono<String> deleteUpstream(Agent agent) {
+		if (agent.agentId() == null) {
+			return Mono.just("already_deleted");
+		}
+		return elevenLabsClient.deleteAgent(agent.agentId())
+				.thenReturn("deleted")
+				.onErrorResume(UpstreamServiceException.class, e -> e.getStatus().value() == HttpStatus.NOT_FOUND.value()
+						? Mono.just("already_deleted")
+						: Mono.error(e));
+	}
+
+	private void count(String outcome) {
+		meterRegistry.counter("alertmind.agent_reaper.agents", "outcome", outcome).increment();
+	}
+}
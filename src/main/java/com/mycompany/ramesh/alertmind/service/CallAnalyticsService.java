@@ -0,0 +1,264 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mycompany.ramesh.alertmind.dto.CallOutcomeStats;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import com.mycompany.ramesh.alertmind.entity.CallOutcomeBucket;
+import com.mycompany.ramesh.alertmind.entity.CallOutcomeMark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains hourly call outcome buckets per assignment group and called number, and answers
+ * analytics queries from them. Each status transition turns into at most one {@code $inc} upsert,
+ * so a query costs one read per bucket however many calls it covers.
+ */
+@Service
+public class CallAnalyticsService {
+
+	private static final Logger log = LoggerFactory.getLogger(CallAnalyticsService.class);
+
+	public enum Dimension { HOUR, ASSIGNMENT_GROUP, TO_NUMBER }
+
+	private static final Set<String> ANSWERED_STATUSES = Set.of("answered", "completed");
+	private static final long[] ACK_BINS_SECONDS = {5, 10, 15, 30, 60, 120, 300};
+	private static final String ACK_OVERFLOW_BIN = "gt_300";
+	private static final String UNKNOWN = "unknown";
+	private static final int MAX_REASON_LENGTH = 80;
+	// Long enough to outlive webhook retries and reconciler refreshes of a call
+	private static final Duration MARK_RETENTION = Duration.ofDays(7);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	public CallAnalyticsService(ReactiveMongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/**
+	 * Counts the transition of a call from {@code previous} to {@code current} in the bucket of
+	 * the hour the call was created. Each of the answered and terminal transitions is first claimed
+	 * with a {@link CallOutcomeMark}, so a transition seen twice, from a re-delivered webhook or a
+	 * webhook racing the reconciler, is counted once. Failures are logged, never propagated, so
+	 * analytics cannot fail a webhook; a transition whose claim succeeded but whose increment
+	 * failed is not counted.
+	 */
+	public Mono<Void> recordTransition(AgentCall previous, AgentCall current) {
+		String from = previous.status() != null ? previous.status().toLowerCase() : null;
+		String to = current.status() != null ? current.status().toLowerCase() : null;
+		if (to == null || to.equals(from) || current.createdAt() == null || current.id() == null) {
+			return Mono.empty();
+		}
+		boolean answered = !isAnswered(from) && isAnswered(to);
+		boolean terminal = !AgentCall.isTerminalStatus(from) && AgentCall.isTerminalStatus(to);
+		if (!answered && !terminal) {
+			return Mono.empty();
+		}
+
+		Instant hour = current.createdAt().truncatedTo(ChronoUnit.HOURS);
+		String assignmentGroup = assignmentGroupOf(current);
+		String toNumber = current.toNumber() != null ? current.toNumber() : UNKNOWN;
+		String bucketId = hour.getEpochSecond() + "|" + assignmentGroup + "|" + toNumber;
+
+		return Mono.zip(answered ? claim(current, "answered") : Mono.just(false),
+						terminal ? claim(current, "terminal") : Mono.just(false))
+				.flatMap(claimed -> {
+					Update update = new Update();
+					if (claimed.getT1()) {
+						long ackMillis = Math.max(0, Duration.between(current.createdAt(), answeredAt(current, to)).toMillis());
+						update.inc("answered", 1)
+								.inc("acknowledged", 1)
+								.inc("ackMillisTotal", ackMillis)
+								.inc("ackHistogram." + ackBin(ackMillis), 1);
+					}
+					if (claimed.getT2()) {
+						update.inc("calls", 1).inc("outcomes." + fieldKey(to), 1);
+						if (current.failureReason() != null) {
+							update.inc("failureReasons." + fieldKey(current.failureReason()), 1);
+						}
+					}
+					if (update.getUpdateObject().isEmpty()) {
+						return Mono.empty();
+					}
+					update.setOnInsert("hour", hour)
+							.setOnInsert("assignmentGroup", assignmentGroup)
+							.setOnInsert("toNumber", toNumber);
+					return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(bucketId)), update, CallOutcomeBucket.class);
+				})
+				.doOnError(error -> log.warn("Failed to update call outcome bucket {}: {}", bucketId, error.getMessage()))
+				.onErrorResume(error -> Mono.empty())
+				.then();
+	}
+
+	/**
+	 * True if this is the first time the {@code kind} transition of the call is counted.
+	 */
+	private Mono<Boolean> claim(AgentCall call, String kind) {
+		return mongoTemplate.insert(new CallOutcomeMark(call.id() + "|" + kind, Instant.now().plus(MARK_RETENTION)))
+				.thenReturn(true)
+				.onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+	}
+
+	/**
+	 * Outcomes of the calls created in {@code [from, to)}, merged over the dimensions not listed
+	 * in {@code groupBy}. Null filters match every bucket.
+	 */
+	public Flux<CallOutcomeStats> query(Instant from, Instant to, String assignmentGroup, String toNumber,
+										Set<Dimension> groupBy) {
+		Criteria criteria = Criteria.where("hour").gte(from.truncatedTo(ChronoUnit.HOURS)).lt(to);
+		if (assignmentGroup != null) {
+			criteria.and("assignmentGroup").is(assignmentGroup);
+		}
+		if (toNumber != null) {
+			criteria.and("toNumber").is(toNumber);
+		}
+
+		return mongoTemplate.find(Query.query(criteria).with(Sort.by("hour")), CallOutcomeBucket.class)
+				.collect(LinkedHashMap<List<Object>, Accumulator>::new, (groups, bucket) -> {
+					Instant hour = groupBy.contains(Dimension.HOUR) ? bucket.hour() : null;
+					String group = groupBy.contains(Dimension.ASSIGNMENT_GROUP) ? bucket.assignmentGroup() : null;
+					String number = groupBy.contains(Dimension.TO_NUMBER) ? bucket.toNumber() : null;
+					groups.computeIfAbsent(Arrays.asList(hour, group, number),
+							key -> new Accumulator(hour, group, number)).add(bucket);
+				})
+				.flatMapIterable(Map::values)
+				.map(Accumulator::toStats);
+	}
+
+	/**
+	 * When the call was answered, from its status timestamps, so a late or replayed webhook does
+	 * not stretch the acknowledgement time. Calls first seen as completed fall back to that.
+	 */
+	private static Instant answeredAt(AgentCall call, String status) {
+		Instant answeredAt = call.statusTimestamp("answered");
+		if (answeredAt == null) {
+			answeredAt = call.statusTimestamp(status);
+		}
+		return answeredAt != null ? answeredAt : Instant.now();
+	}
+
+	private static boolean isAnswered(String status) {
+		// Set.of rejects null lookups
+		return status != null && ANSWERED_STATUSES.contains(status);
+	}
+
+	private static String assignmentGroupOf(AgentCall call) {
+		JsonNode payload = call.requestPayload();
+		if (payload != null && payload.hasNonNull("assignmentGroup") && !payload.get("assignmentGroup").asText().isBlank()) {
+			return payload.get("assignmentGroup").asText();
+		}
+		return UNKNOWN;
+	}
+
+	private static String ackBin(long ackMillis) {
+		for (long bound : ACK_BINS_SECONDS) {
+			if (ackMillis <= bound * 1000) {
+				return "le_" + bound;
+			}
+		}
+		return ACK_OVERFLOW_BIN;
+	}
+
+	/**
+	 * Failure reasons are free text from the webhook; they become field names, so characters
+	 * Mongo treats as path separators or operators are replaced and the length is capped.
+	 */
+	private static String fieldKey(String reason) {
+		String key = reason.strip().replace('.', '_').replace('$', '_');
+		return key.length() > MAX_REASON_LENGTH ? key.substring(0, MAX_REASON_LENGTH) : key;
+	}
+
+	private static final class Accumulator {
+
+		private final Instant hour;
+		private final String assignmentGroup;
+		private final String toNumber;
+		private final Map<String, Long> outcomes = new LinkedHashMap<>();
+		private final Map<String, Long> failureReasons = new LinkedHashMap<>();
+		private final Map<String, Long> ackHistogram = new LinkedHashMap<>();
+		private long calls;
+		private long answered;
+		private long acknowledged;
+		private long ackMillisTotal;
+
+		Accumulator(Instant hour, String assignmentGroup, String toNumber) {
+			this.hour = hour;
+			this.assignmentGroup = assignmentGroup;
+			this.toNumber = toNumber;
+			for (long bound : ACK_BINS_SECONDS) {
+				ackHistogram.put("le_" + bound, 0L);
+			}
+			ackHistogram.put(ACK_OVERFLOW_BIN, 0L);
+		}
+
+		void add(CallOutcomeBucket bucket) {
+			calls += bucket.calls();
+			answered += bucket.answered();
+			acknowledged += bucket.acknowledged();
+			ackMillisTotal += bucket.ackMillisTotal();
+			merge(outcomes, bucket.outcomes());
+			merge(failureReasons, bucket.failureReasons());
+			merge(ackHistogram, bucket.ackHistogram());
+		}
+
+		CallOutcomeStats toStats() {
+			return new CallOutcomeStats(
+					hour,
+					assignmentGroup,
+					toNumber,
+					calls,
+					answered,
+					calls > 0 ? (double) answered / calls : 0,
+					calls > 0 ? (double) outcomes.getOrDefault("no_answer", 0L) / calls : 0,
+					outcomes,
+					failureReasons,
+					acknowledged > 0 ? ackMillisTotal / 1000.0 / acknowledged : null,
+					ackPercentile(0.5),
+					ackPercentile(0.9),
+					ackHistogram
+			);
+		}
+
+		/**
+		 * Upper bound in seconds of the bin holding the percentile; null if there were no
+		 * acknowledgements or the percentile is beyond the last bin.
+		 */
+		private Long ackPercentile(double percentile) {
+			if (acknowledged == 0) {
+				return null;
+			}
+			long rank = (long) Math.ceil(percentile * acknowledged);
+			long seen = 0;
+			for (long bound : ACK_BINS_SECONDS) {
+				seen += ackHistogram.getOrDefault("le_" + bound, 0L);
+				if (seen >= rank) {
+					return bound;
+				}
+			}
+			return null;
+		}
+
+		private static void merge(Map<String, Long> target, Map<String, Long> counts) {
+			if (counts != null) {
+				counts.forEach((key, count) -> target.merge(key, count, Long::sum));
+			}
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.config.CallQuotaProperties;
+import com.mycompany.ramesh.alertmind.entity.CallSlot;
+import com.mycompany.ramesh.alertmind.exception.CallQuotaExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Cluster-wide limiter for concurrent outbound calls. The account quota is modelled as a fixed
+ * set of lease documents in {@code call_slots}; a node claims one with an atomic findAndModify
+ * before dialing and the webhook path frees it once the call reaches a terminal status.
+ */
+@Service
+public class CallConcurrencyLimiter {
+
+	private static final Logger log = LoggerFactory.getLogger(CallConcurrencyLimiter.class);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final CallQuotaProperties properties;
+	private final Mono<Void> slotsSeeded;
+
+	public CallConcurrencyLimiter(ReactiveMongoTemplate mongoTemplate, CallQuotaProperties properties) {
+		this.mongoTemplate = mongoTemplate;
+		this.properties = properties;
+		// Seeded once per instance; a failed attempt is not cached, so the next acquire tries again
+		this.slotsSeeded = Mono.defer(this::seedSlots)
+				.cache(v -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ofMillis(Long.MAX_VALUE));
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void initializeSlots() {
+		if (!properties.enabled()) {
+			return;
+		}
+		slotsSeeded.subscribe(
+				v -> {},
+				error -> log.error("Failed to initialize call slots: {}", error.getMessage()));
+	}
+
+	/**
+	 * Upserts the slot documents. Idempotent, so every instance runs it, and {@link #acquire}
+	 * waits for it so calls arriving right after startup do not find an empty quota.
+	 */
+	private Mono<Void> seedSlots() {
+		return Flux.range(0, properties.maxConcurrentCalls())
+				.flatMap(index -> mongoTemplate.upsert(
+								Query.query(Criteria.where("_id").is(slotId(index))),
+								new Update()
+										.setOnInsert("slotIndex", index)
+										.setOnInsert("expiresAt", Instant.EPOCH),
+								CallSlot.class)
+						// Another node seeded the same slot concurrently
+						.onErrorResume(DuplicateKeyException.class, e -> Mono.empty()))
+				.then()
+				.doOnSuccess(v -> log.info("Call quota ready with {} slots", properties.maxConcurrentCalls()));
+	}
+
+	/**
+	 * Claims a free slot for the given holder, retrying with backoff while the quota is exhausted.
+	 * Fails with {@link CallQuotaExceededException} once the retries run out.
+	 */
+	public Mono<Void> acquire(String holder) {
+		if (!properties.enabled()) {
+			return Mono.empty();
+		}
+		return slotsSeeded.then(Mono.defer(() -> {
+					Instant now = Instant.now();
+					Query query = Query.query(Criteria.where("slotIndex").lt(properties.maxConcurrentCalls())
+							.orOperator(
+									Criteria.where("holder").is(null),
+									Criteria.where("expiresAt").lt(now)));
+					Update update = new Update()
+							.set("holder", holder)
+							.set("acquiredAt", now)
+							.set("expiresAt", now.plus(properties.leaseDuration()));
+					return mongoTemplate.findAndModify(query, update,
+							FindAndModifyOptions.options().returnNew(true), CallSlot.class);
+				}))
+				.switchIfEmpty(Mono.error(() -> new CallQuotaExceededException(
+						properties.maxConcurrentCalls(), properties.acquireBackoff())))
+				.retryWhen(Retry.backoff(properties.acquireRetries(), properties.acquireBackoff())
+						.filter(CallQuotaExceededException.class::isInstance)
+						.onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+				.doOnNext(slot -> log.info("Acquired call slot {} for {}", slot.id(), holder))
+				.doOnError(CallQuotaExceededException.class,
+						error -> log.warn("No call slot available for {}: {}", holder, error.getMessage()))
+				.then();
+	}
+
+	/**
+	 * Extends the lease of the slot held by the given holder, keeping long-running calls from
+	 * having their slot reclaimed.
+	 */
+	public Mono<Void> renew(String holder) {
+		if (!properties.enabled() || holder == null) {
+			return Mono.empty();
+		}
+		return mongoTemplate.updateFirst(
+						Query.query(Criteria.where("holder").is(holder)),
+						new Update().set("expiresAt", Instant.now().plus(properties.leaseDuration())),
+						CallSlot.class)
+				.onErrorResume(error -> {
+					log.error("Failed to renew call slot for {}: {}", holder, error.getMessage());
+					return Mono.empty();
+				})
+				.then();
+	}
+
+	public Mono<Void> release(String holder) {
+		if (!properties.enabled() || holder == null) {
+			return Mono.empty();
+		}
+		return mongoTemplate.updateFirst(
+						Query.query(Criteria.where("holder").is(holder)),
+						new Update().unset("holder").set("expiresAt", Instant.EPOCH),
+						CallSlot.class)
+				.doOnNext(result -> {
+					if (result.getModifiedCount() > 0) {
+						log.info("Released call slot for {}", holder);
+					}
+				})
+				.onErrorResume(error -> {
+					// The lease expiry will reclaim the slot
+					log.error("Failed to release call slot for {}: {}", holder, error.getMessage());
+					return Mono.empty();
+				})
+				.then();
+	}
+
+	private static String slotId(int index) {
+		return "slot-" + index;
+	}
+}
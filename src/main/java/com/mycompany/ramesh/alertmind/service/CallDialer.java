@@ -0,0 +1,32 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mycompany.ramesh.alertmind.dto.CreateOutboundCallRequest;
+import reactor.core.publisher.Mono;
+
+/**
+ * A provider that can place an outbound incident call. {@link CallDialerRouter} chooses between
+ * the available dialers for every call.
+ */
+public interface CallDialer {
+
+	/**
+	 * Provider name, used in {@code app.dialer-routing.providers}, metrics and the call record.
+	 */
+	String provider();
+
+	Mono<DialedCall> dial(CreateOutboundCallRequest request);
+
+	/**
+	 * A call accepted by a provider, with the fields stored on the call record.
+	 */
+	record DialedCall(
+			String provider,
+			String callId,
+			String agentId,
+			String agentPhoneNumberId,
+			String status,
+			JsonNode rawResponse
+	) {
+	}
+}
@@ -0,0 +1,192 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.config.DialerRoutingProperties;
+import com.mycompany.ramesh.alertmind.dto.CreateOutboundCallRequest;
+import com.mycompany.ramesh.alertmind.exception.UpstreamServiceException;
+import com.mycompany.ramesh.alertmind.service.CallDialer.DialedCall;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Chooses the provider for each outbound call. Every dial attempt is recorded per provider over
+ * a rolling window; a provider whose p95 latency or error rate in the window exceeds the limits
+ * is degraded. Healthy providers are tried in the configured order, degraded ones after them,
+ * and a dial that fails with a timeout, an I/O error, a 5xx or a 429 moves on to the next
+ * provider. A degraded provider gets traffic again once its bad samples age out of the window.
+ * A dial that timed out may still have been placed, so failover favours a duplicate call over a
+ * missed one.
+ */
+@Service
+public class CallDialerRouter {
+
+	private static final Logger log = LoggerFactory.getLogger(CallDialerRouter.class);
+	private static final int MAX_SAMPLES = 1_000;
+
+	private final DialerRoutingProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final List<Route> routes;
+
+	public CallDialerRouter(List<CallDialer> dialers, DialerRoutingProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		Map<String, CallDialer> byProvider = dialers.stream()
+				.collect(Collectors.toMap(CallDialer::provider, Function.identity()));
+		List<Route> configured = new ArrayList<>();
+		for (String provider : properties.providers()) {
+			CallDialer dialer = byProvider.get(provider);
+			if (dialer == null) {
+				throw new IllegalArgumentException("Unknown dialer provider '" + provider + "', expected one of " + byProvider.keySet());
+			}
+			configured.add(new Route(dialer, new ProviderStats()));
+		}
+		this.routes = List.copyOf(configured);
+		for (Route route : routes) {
+			Gauge.builder("alertmind.dialer.error_rate", route, r -> r.stats().health(properties.window()).errorRate())
+					.description("Dial error rate over the routing window")
+					.tag("provider", route.dialer().provider())
+					.register(meterRegistry);
+			Gauge.builder("alertmind.dialer.p95_latency", route, r -> r.stats().health(properties.window()).p95Millis())
+					.description("p95 dial latency over the routing window, in milliseconds")
+					.tag("provider", route.dialer().provider())
+					.register(meterRegistry);
+		}
+	}
+
+	public Mono<DialedCall> dial(CreateOutboundCallRequest request) {
+		List<Route> order = properties.failoverEnabled() ? rank() : routes.subList(0, 1);
+		return attempt(order, 0, request);
+	}
+
+	private Mono<DialedCall> attempt(List<Route> order, int index, CreateOutboundCallRequest request) {
+		Route route = order.get(index);
+		String provider = route.dialer().provider();
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return route.dialer().dial(request)
+					.timeout(properties.dialTimeout())
+					.doOnSuccess(dialed -> record(route, start, "success", false))
+					.doOnError(error -> record(route, start, isProviderFailure(error) ? "error" : "rejected",
+							isProviderFailure(error)));
+		}).onErrorResume(error -> {
+			if (!isProviderFailure(error) || index + 1 >= order.size()) {
+				return Mono.error(error);
+			}
+			String next = order.get(index + 1).dialer().provider();
+			log.warn("Dialing {} through {} failed ({}), failing over to {}",
+					request.toNumber(), provider, error.getMessage(), next);
+			meterRegistry.counter("alertmind.dialer.failovers", "from", provider, "to", next).increment();
+			return attempt(order, index + 1, request);
+		});
+	}
+
+	/**
+	 * Healthy providers in configured order, followed by the degraded ones from the least to the
+	 * most degraded.
+	 */
+	private List<Route> rank() {
+		Duration window = properties.window();
+		List<Route> healthy = new ArrayList<>();
+		List<Route> degraded = new ArrayList<>();
+		for (Route route : routes) {
+			(isHealthy(route.stats().health(window)) ? healthy : degraded).add(route);
+		}
+		if (!degraded.isEmpty()) {
+			degraded.sort(Comparator.<Route>comparingDouble(route -> route.stats().health(window).errorRate())
+					.thenComparingLong(route -> route.stats().health(window).p95Millis()));
+			healthy.addAll(degraded);
+		}
+		return healthy;
+	}
+
+	private boolean isHealthy(Health health) {
+		return health.samples() < properties.minSamples()
+				|| (health.errorRate() <= properties.maxErrorRate()
+						&& health.p95Millis() <= properties.maxP95Latency().toMillis());
+	}
+
+	private void record(Route route, long start, String outcome, boolean failed) {
+		long nanos = System.nanoTime() - start;
+		route.stats().record(nanos, failed);
+		Timer.builder("alertmind.dialer.requests")
+				.description("Outbound dial latency per provider")
+				.tag("provider", route.dialer().provider())
+				.tag("outcome", outcome)
+				.publishPercentileHistogram()
+				.register(meterRegistry)
+				.record(Duration.ofNanos(nanos));
+	}
+
+	/**
+	 * Failures that say the provider is unhealthy rather than that the request was wrong.
+	 */
+	private static boolean isProviderFailure(Throwable error) {
+		if (error instanceof UpstreamServiceException upstream) {
+			return upstream.getStatus().is5xxServerError()
+					|| upstream.getStatus().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+		}
+		return error instanceof WebClientRequestException || error instanceof TimeoutException;
+	}
+
+	private record Route(CallDialer dialer, ProviderStats stats) {
+	}
+
+	private record Health(int samples, double errorRate, long p95Millis) {
+	}
+
+	private record Sample(long at, long nanos, boolean failed) {
+	}
+
+	private static final class ProviderStats {
+
+		private final Deque<Sample> samples = new ArrayDeque<>();
+
+		synchronized void record(long nanos, boolean failed) {
+			samples.addLast(new Sample(System.nanoTime(), nanos, failed));
+			if (samples.size() > MAX_SAMPLES) {
+				samples.removeFirst();
+			}
+		}
+
+		synchronized Health health(Duration window) {
+			long oldest = System.nanoTime() - window.toNanos();
+			while (!samples.isEmpty() && samples.peekFirst().at() - oldest < 0) {
+				samples.removeFirst();
+			}
+			if (samples.isEmpty()) {
+				return new Health(0, 0, 0);
+			}
+			long[] latencies = new long[samples.size()];
+			int failures = 0;
+			int i = 0;
+			for (Sample sample : samples) {
+				latencies[i++] = sample.nanos();
+				if (sample.failed()) {
+					failures++;
+				}
+			}
+			Arrays.sort(latencies);
+			int rank = (int) Math.ceil(0.95 * latencies.length) - 1;
+			return new Health(latencies.length, (double) failures / latencies.length,
+					Duration.ofNanos(latencies[Math.max(rank, 0)]).toMillis());
+		}
+	}
+}
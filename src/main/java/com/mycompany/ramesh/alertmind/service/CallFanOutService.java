@@ -0,0 +1,137 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.ramesh.alertmind.config.FanOutProperties;
+import com.mycompany.ramesh.alertmind.dto.CreateOutboundCallRequest;
+import com.mycompany.ramesh.alertmind.dto.FanOutCallRequest;
+import com.mycompany.ramesh.alertmind.dto.FanOutCallResponse;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import com.mycompany.ramesh.alertmind.entity.CallFanOut;
+import com.mycompany.ramesh.alertmind.exception.CallQuotaExceededException;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Calls out one incident to several recipients at once. The call records of all recipients are
+ * written with one bulk insert, then the recipients are dialed concurrently, bounded by
+ * {@code app.fan-out.parallelism} and by the shared concurrent call quota.
+ */
+@Service
+public class CallFanOutService {
+
+	private static final Logger log = LoggerFactory.getLogger(CallFanOutService.class);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final CallDialerRouter callDialerRouter;
+	private final AgentCallWriter agentCallWriter;
+	private final CallConcurrencyLimiter callConcurrencyLimiter;
+	private final CallTransitionRecorder callTransitionRecorder;
+	private final FanOutCancellationService fanOutCancellationService;
+	private final ObjectMapper objectMapper;
+	private final FanOutProperties properties;
+
+	public CallFanOutService(ReactiveMongoTemplate mongoTemplate,
+							 CallDialerRouter callDialerRouter,
+							 AgentCallWriter agentCallWriter,
+							 CallConcurrencyLimiter callConcurrencyLimiter,
+							 CallTransitionRecorder callTransitionRecorder,
+							 FanOutCancellationService fanOutCancellationService,
+							 ObjectMapper objectMapper,
+							 FanOutProperties properties) {
+		this.mongoTemplate = mongoTemplate;
+		this.callDialerRouter = callDialerRouter;
+		this.agentCallWriter = agentCallWriter;
+		this.callConcurrencyLimiter = callConcurrencyLimiter;
+		this.callTransitionRecorder = callTransitionRecorder;
+		this.fanOutCancellationService = fanOutCancellationService;
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+	}
+
+	public Mono<FanOutCallResponse> fanOut(FanOutCallRequest request) {
+		String fanOutId = new ObjectId().toHexString();
+		List<String> recipients = request.toNumbers().stream().map(String::trim).distinct().toList();
+		log.info("Fan-out {} of incident {} to {} recipients", fanOutId, request.incidentNumber(), recipients.size());
+
+		List<AgentCall> records = recipients.stream()
+				.map(toNumber -> AgentCall.fromRequest(toNumber, objectMapper.valueToTree(request.forRecipient(toNumber)))
+						.withFanOut(fanOutId))
+				.toList();
+		CallFanOut fanOut = new CallFanOut(fanOutId, request.incidentNumber(), recipients,
+				request.cancelOnAcknowledge(), null, null, Instant.now());
+
+		return mongoTemplate.insert(fanOut)
+				.thenMany(mongoTemplate.insertAll(records))
+				.concatMap(callTransitionRecorder::recordCreated)
+				.flatMap(record -> dial(record, request.forRecipient(record.toNumber())), properties.parallelism())
+				.collectList()
+				.map(calls -> FanOutCallResponse.of(fanOutId, calls))
+				.doOnSuccess(response -> log.info("Fan-out {} initiated {} of {} calls",
+						fanOutId, response.initiated(), response.requested()));
+	}
+
+	/**
+	 * Dials one recipient unless another one already acknowledged. Failures are recorded on the
+	 * recipient's call record instead of failing the whole fan-out.
+	 */
+	private Mono<AgentCall> dial(AgentCall record, CreateOutboundCallRequest request) {
+		return fanOutCancellationService.isAcknowledged(record.fanOutId())
+				.flatMap(acknowledged -> acknowledged
+						? fanOutCancellationService.cancel(record)
+								.flatMap(canceled -> callTransitionRecorder.record(canceled.previous(), canceled.canceled()))
+								.defaultIfEmpty(record)
+						: callConcurrencyLimiter.acquire(record.id())
+								.then(Mono.defer(() -> placeCall(record, request)))
+								.onErrorResume(CallQuotaExceededException.class, e -> fail(record, e.getMessage())));
+	}
+
+	/**
+	 * Only a failed dial releases the slot and fails the call; once the call is placed, a failure
+	 * to record or cancel it leaves the call as dialed in the response.
+	 */
+	private Mono<AgentCall> placeCall(AgentCall record, CreateOutboundCallRequest request) {
+		return callDialerRouter.dial(request)
+				.map(dialed -> record.withUpdatedResponse(
+						dialed.provider(),
+						dialed.callId(),
+						dialed.agentId(),
+						dialed.agentPhoneNumberId(),
+						dialed.status(),
+						dialed.rawResponse()))
+				.onErrorResume(e -> {
+					log.error("Failed to call {} for fan-out {}: {}", record.toNumber(), record.fanOutId(), e.getMessage());
+					return callConcurrencyLimiter.release(record.id()).thenReturn(record.withFailure(e.getMessage()));
+				})
+				.flatMap(next -> agentCallWriter.save(next)
+						.flatMap(saved -> callTransitionRecorder.record(record, saved))
+						.onErrorResume(e -> {
+							log.error("Failed to record call {} of fan-out {}: {}", record.id(), record.fanOutId(), e.getMessage());
+							return Mono.just(next);
+						}))
+				// Another recipient may have answered while this one was being dialed
+				.flatMap(placed -> AgentCall.isTerminalStatus(placed.status())
+						? Mono.just(placed)
+						: fanOutCancellationService.isAcknowledged(record.fanOutId())
+								.flatMap(acknowledged -> acknowledged
+										? fanOutCancellationService.cancel(placed)
+												.flatMap(canceled -> callTransitionRecorder.record(canceled.previous(), canceled.canceled()))
+												.defaultIfEmpty(placed)
+										: Mono.just(placed))
+								.onErrorResume(e -> {
+									log.warn("Failed to cancel call {} of fan-out {}: {}", placed.id(), record.fanOutId(), e.getMessage());
+									return Mono.just(placed);
+								}));
+	}
+
+	private Mono<AgentCall> fail(AgentCall record, String reason) {
+		return agentCallWriter.save(record.withFailure(reason))
+				.flatMap(saved -> callTransitionRecorder.record(record, saved));
+	}
+}
@@ -0,0 +1,253 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mycompany.ramesh.alertmind.dto.StageLatencyStats;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import com.mycompany.ramesh.alertmind.entity.CallStageBucket;
+import com.mycompany.ramesh.alertmind.entity.CallStageBucket.StageHistogram;
+import com.mycompany.ramesh.alertmind.entity.CallStageMark;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures how long calls spend in each stage, from incident receipt to completion, using the
+ * per-status timestamps on {@link AgentCall}. Every completed stage is recorded in a Micrometer
+ * timer, whose percentiles are HdrHistogram-backed, and in an hourly {@link CallStageBucket} that
+ * the latency query endpoint reads for arbitrary windows. Each stage of a call is claimed with a
+ * {@link CallStageMark} before it is counted, so replayed webhooks do not count it again.
+ */
+@Service
+public class CallLatencyService {
+
+	private static final Logger log = LoggerFactory.getLogger(CallLatencyService.class);
+
+	/**
+	 * Pseudo-status for the incident time carried in the request payload.
+	 */
+	private static final String INCIDENT = "incident";
+
+	private static final List<Stage> STAGES = List.of(
+			new Stage("incident_to_created", INCIDENT, "created"),
+			new Stage("created_to_initiated", "created", "initiated"),
+			new Stage("initiated_to_ringing", "initiated", "ringing"),
+			new Stage("ringing_to_answered", "ringing", "answered"),
+			new Stage("answered_to_completed", "answered", "completed"),
+			new Stage("created_to_answered", "created", "answered"),
+			new Stage("incident_to_answered", INCIDENT, "answered"));
+
+	private static final long[] BINS_MILLIS = {
+			500, 1_000, 2_000, 5_000, 10_000, 20_000, 30_000, 60_000,
+			120_000, 300_000, 600_000, 1_800_000, 3_600_000};
+	private static final String OVERFLOW_BIN = "gt_3600000";
+	private static final Duration MARK_RETENTION = Duration.ofDays(7);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final MeterRegistry meterRegistry;
+
+	public CallLatencyService(ReactiveMongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+		this.mongoTemplate = mongoTemplate;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Records the stages the call completed by moving from {@code previous} to {@code current}.
+	 * Failures are logged and swallowed so latency tracking cannot fail a webhook.
+	 */
+	public Mono<Void> recordTransition(AgentCall previous, AgentCall current) {
+		String to = current.status() != null ? current.status().toLowerCase() : null;
+		if (to == null || to.equalsIgnoreCase(previous.status())) {
+			return Mono.empty();
+		}
+		return recordStagesEndingAt(current, to);
+	}
+
+	/**
+	 * Records the stages that end when the request record of a call is first saved, which no
+	 * status transition covers.
+	 */
+	public Mono<Void> recordCreated(AgentCall created) {
+		return recordStagesEndingAt(created, "created");
+	}
+
+	private Mono<Void> recordStagesEndingAt(AgentCall current, String to) {
+		Instant end = current.statusTimestamp(to);
+		if (end == null || current.id() == null) {
+			return Mono.empty();
+		}
+
+		Instant hour = end.truncatedTo(ChronoUnit.HOURS);
+		String bucketId = String.valueOf(hour.getEpochSecond());
+		return Flux.fromIterable(STAGES)
+				.filter(stage -> stage.to().equals(to))
+				.flatMap(stage -> {
+					Instant start = INCIDENT.equals(stage.from()) ? incidentTimeOf(current) : current.statusTimestamp(stage.from());
+					if (start == null || start.isAfter(end)) {
+						return Mono.empty();
+					}
+					long millis = Duration.between(start, end).toMillis();
+					return claim(current, stage)
+							.filter(Boolean::booleanValue)
+							.map(claimed -> new Measurement(stage, millis));
+				})
+				.collectList()
+				.flatMap(measurements -> {
+					if (measurements.isEmpty()) {
+						return Mono.empty();
+					}
+					Update update = new Update();
+					for (Measurement measurement : measurements) {
+						long millis = measurement.millis();
+						stageTimer(measurement.stage().name()).record(Duration.ofMillis(millis));
+						String prefix = "stages." + measurement.stage().name() + ".";
+						update.inc(prefix + "count", 1)
+								.inc(prefix + "totalMillis", millis)
+								.inc(prefix + "bins." + binOf(millis), 1)
+								.max(prefix + "maxMillis", millis);
+					}
+					update.setOnInsert("hour", hour);
+					return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(bucketId)), update, CallStageBucket.class);
+				})
+				.doOnError(error -> log.warn("Failed to update call stage bucket {}: {}", bucketId, error.getMessage()))
+				.onErrorResume(error -> Mono.empty())
+				.then();
+	}
+
+	/**
+	 * True if this is the first time the stage of the call is counted.
+	 */
+	private Mono<Boolean> claim(AgentCall call, Stage stage) {
+		return mongoTemplate.insert(new CallStageMark(call.id() + "|" + stage.name(), Instant.now().plus(MARK_RETENTION)))
+				.thenReturn(true)
+				.onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+	}
+
+	/**
+	 * Latency percentiles of each stage completed in {@code [from, to)}, per hour or over the
+	 * whole window.
+	 */
+	public Flux<StageLatencyStats> query(Instant from, Instant to, boolean hourly) {
+		Query query = Query.query(Criteria.where("hour").gte(from.truncatedTo(ChronoUnit.HOURS)).lt(to))
+				.with(Sort.by("hour"));
+		return mongoTemplate.find(query, CallStageBucket.class)
+				.collect(LinkedHashMap<List<Object>, Accumulator>::new, (groups, bucket) -> {
+					if (bucket.stages() == null) {
+						return;
+					}
+					Instant hour = hourly ? bucket.hour() : null;
+					for (Stage stage : STAGES) {
+						StageHistogram histogram = bucket.stages().get(stage.name());
+						if (histogram != null) {
+							groups.computeIfAbsent(Arrays.asList(hour, stage.name()),
+									key -> new Accumulator(hour, stage.name())).add(histogram);
+						}
+					}
+				})
+				.flatMapIterable(Map::values)
+				.map(Accumulator::toStats);
+	}
+
+	private Timer stageTimer(String stage) {
+		return Timer.builder("alertmind.call.stage.latency")
+				.description("Time calls spend between two statuses")
+				.tag("stage", stage)
+				.publishPercentiles(0.5, 0.9, 0.99)
+				.publishPercentileHistogram()
+				.minimumExpectedValue(Duration.ofMillis(100))
+				.maximumExpectedValue(Duration.ofHours(1))
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Incident time from the request payload. Only times with an offset are used; a local time
+	 * cannot be placed on the timeline reliably.
+	 */
+	private static Instant incidentTimeOf(AgentCall call) {
+		JsonNode payload = call.requestPayload();
+		if (payload == null || !payload.hasNonNull("incidentDateTime")) {
+			return null;
+		}
+		try {
+			return OffsetDateTime.parse(payload.get("incidentDateTime").asText()).toInstant();
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	private static String binOf(long millis) {
+		for (long bound : BINS_MILLIS) {
+			if (millis <= bound) {
+				return "le_" + bound;
+			}
+		}
+		return OVERFLOW_BIN;
+	}
+
+	private record Stage(String name, String from, String to) {
+	}
+
+	private record Measurement(Stage stage, long millis) {
+	}
+
+	private static final class Accumulator {
+
+		private final Instant hour;
+		private final String stage;
+		private final Map<String, Long> bins = new LinkedHashMap<>();
+		private long count;
+		private long totalMillis;
+		private long maxMillis;
+
+		Accumulator(Instant hour, String stage) {
+			this.hour = hour;
+			this.stage = stage;
+		}
+
+		void add(StageHistogram histogram) {
+			count += histogram.count();
+			totalMillis += histogram.totalMillis();
+			maxMillis = Math.max(maxMillis, histogram.maxMillis());
+			if (histogram.bins() != null) {
+				histogram.bins().forEach((bin, binCount) -> bins.merge(bin, binCount, Long::sum));
+			}
+		}
+
+		StageLatencyStats toStats() {
+			return new StageLatencyStats(hour, stage, count,
+					count > 0 ? (double) totalMillis / count : 0,
+					percentile(0.5), percentile(0.9), percentile(0.99), maxMillis);
+		}
+
+		private long percentile(double percentile) {
+			long rank = (long) Math.ceil(percentile * count);
+			long seen = 0;
+			for (long bound : BINS_MILLIS) {
+				seen += bins.getOrDefault("le_" + bound, 0L);
+				if (seen >= rank) {
+					return Math.min(bound, maxMillis);
+				}
+			}
+			return maxMillis;
+		}
+	}
+}
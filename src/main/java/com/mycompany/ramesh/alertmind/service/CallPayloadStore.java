@@ -0,0 +1,242 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.ramesh.alertmind.config.JsonNodeConverters;
+import com.mycompany.ramesh.alertmind.config.PayloadStoreProperties;
+import com.mycompany.ramesh.alertmind.entity.CallPayload;
+import com.mycompany.ramesh.alertmind.entity.TranscriptTurn;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.ReactiveGridFsTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Cold storage for the large payloads of an {@code AgentCall}. Payloads are written compressed to
+ * {@code agent_call_payloads}, or to GridFS when they would not fit comfortably in a document, and
+ * are only read back when a caller asks for them.
+ */
+@Service
+public class CallPayloadStore {
+
+	private static final Logger log = LoggerFactory.getLogger(CallPayloadStore.class);
+
+	public static final String TRANSCRIPT = "transcript";
+	private static final String ENCODING = "deflate+json";
+	private static final int MIGRATION_BATCH_SIZE = 200;
+	private static final int MIGRATION_CONCURRENCY = 8;
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ReactiveGridFsTemplate gridFsTemplate;
+	private final ObjectMapper objectMapper;
+	private final PayloadStoreProperties properties;
+	private final MigrationRunner migrationRunner;
+
+	public CallPayloadStore(ReactiveMongoTemplate mongoTemplate,
+							ReactiveGridFsTemplate gridFsTemplate,
+							ObjectMapper objectMapper,
+							PayloadStoreProperties properties,
+							MigrationRunner migrationRunner) {
+		this.mongoTemplate = mongoTemplate;
+		this.gridFsTemplate = gridFsTemplate;
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+		this.migrationRunner = migrationRunner;
+	}
+
+	public Mono<Void> saveTranscript(String callRecordId, JsonNode transcript) {
+		return save(callRecordId, TRANSCRIPT, transcript);
+	}
+
+	/**
+	 * Loads the transcript of a call, falling back to the inline {@code transcript} field of
+	 * records written before transcripts moved to this store.
+	 */
+	public Mono<JsonNode> loadTranscript(String callRecordId) {
+		return load(callRecordId, TRANSCRIPT)
+				.switchIfEmpty(Mono.defer(() -> loadInlineTranscript(callRecordId)));
+	}
+
+	public Mono<Void> deleteAll(String callRecordId) {
+		return delete(Query.query(Criteria.where("callRecordId").is(callRecordId)));
+	}
+
+	/**
+	 * Deletes the given payloads together with their GridFS files.
+	 */
+	public Mono<Void> deleteAll(Collection<String> payloadIds) {
+		return delete(Query.query(Criteria.where("_id").in(payloadIds)));
+	}
+
+	/**
+	 * The compressed content of a payload stored in GridFS, for export.
+	 */
+	public Mono<byte[]> loadGridFsContent(String payloadId) {
+		return readGridFsFile(payloadId);
+	}
+
+	/**
+	 * Deletes payloads with their GridFS files and, for transcripts, the turns indexed from them
+	 * for search.
+	 */
+	private Mono<Void> delete(Query query) {
+		return mongoTemplate.findAllAndRemove(query, CallPayload.class)
+				.flatMap(payload -> Mono.when(
+						payload.gridFsFileId() != null ? gridFsTemplate.delete(gridFsQuery(payload.id())) : Mono.empty(),
+						TRANSCRIPT.equals(payload.kind())
+								? mongoTemplate.remove(Query.query(Criteria.where("callRecordId").is(payload.callRecordId())), TranscriptTurn.class)
+								: Mono.empty()))
+				.then();
+	}
+
+	/**
+	 * Moves transcripts still held inline in {@code agent_calls} into this store. The call model
+	 * no longer maps {@code transcript} and every write replaces the whole document, so the first
+	 * status update to such a record would drop its transcript. Runs before the instance takes
+	 * traffic, but only until it has completed once against the database; later starts skip the
+	 * scan. Idempotent: each transcript is unset only once it is stored here.
+	 */
+	@EventListener(ApplicationStartedEvent.class)
+	public void migrateInlineTranscripts() {
+		Query legacy = Query.query(Criteria.where(TRANSCRIPT).exists(true));
+		legacy.fields().include(TRANSCRIPT, "transcriptStoredAt");
+		legacy.cursorBatchSize(MIGRATION_BATCH_SIZE);
+		try {
+			migrationRunner.runOnce("agent_calls.inline-transcripts",
+							mongoTemplate.find(legacy, Document.class, "agent_calls")
+									.flatMap(this::migrateInlineTranscript, MIGRATION_CONCURRENCY)
+									.count())
+					.block();
+		} catch (RuntimeException e) {
+			// Records not migrated keep their transcript until the next start; reads fall back to it
+			log.error("Failed to migrate inline transcripts: {}", e.getMessage(), e);
+		}
+	}
+
+	private Mono<Void> migrateInlineTranscript(Document call) {
+		Object id = call.get("_id");
+		String callRecordId = id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+		Update update = new Update().unset(TRANSCRIPT);
+		if (call.get("transcriptStoredAt") == null) {
+			update.set("transcriptStoredAt", Instant.now());
+		}
+		return save(callRecordId, TRANSCRIPT, JsonNodeConverters.toJsonNode(call.get(TRANSCRIPT)))
+				.then(mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), update, "agent_calls"))
+				.then();
+	}
+
+	private Mono<Void> save(String callRecordId, String kind, JsonNode payload) {
+		String id = payloadId(callRecordId, kind);
+		return Mono.fromCallable(() -> {
+					byte[] json = objectMapper.writeValueAsBytes(payload);
+					return new Encoded(json.length, compress(json));
+				})
+				.subscribeOn(Schedulers.parallel())
+				.flatMap(encoded -> {
+					byte[] compressed = encoded.compressed();
+					int uncompressedSize = encoded.uncompressedSize();
+					if (compressed.length < properties.gridFsThreshold().toBytes()) {
+						return Mono.just(new CallPayload(id, callRecordId, kind, ENCODING,
+								uncompressedSize, compressed.length, compressed, null, Instant.now()));
+					}
+					log.info("Storing {} of call {} in GridFS ({} bytes compressed)", kind, callRecordId, compressed.length);
+					return gridFsTemplate.delete(gridFsQuery(id))
+							.then(gridFsTemplate.store(
+									Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(compressed)), id))
+							.map(fileId -> new CallPayload(id, callRecordId, kind, ENCODING,
+									uncompressedSize, compressed.length, null, fileId.toHexString(), Instant.now()));
+				})
+				.flatMap(mongoTemplate::save)
+				.doOnSuccess(saved -> log.debug("Stored {} of call {}: {} -> {} bytes",
+						kind, callRecordId, saved.uncompressedSize(), saved.compressedSize()))
+				.then();
+	}
+
+	private Mono<JsonNode> load(String callRecordId, String kind) {
+		return mongoTemplate.findById(payloadId(callRecordId, kind), CallPayload.class)
+				.flatMap(payload -> payload.gridFsFileId() == null
+						? Mono.just(payload.data())
+						: readGridFsFile(payload.id()))
+				.publishOn(Schedulers.parallel())
+				.map(compressed -> {
+					try {
+						return objectMapper.readTree(decompress(compressed));
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+	}
+
+	private Mono<byte[]> readGridFsFile(String filename) {
+		return gridFsTemplate.findOne(gridFsQuery(filename))
+				.flatMap(gridFsTemplate::getResource)
+				.flatMap(resource -> DataBufferUtils.join(resource.getDownloadStream()))
+				.map(buffer -> {
+					byte[] bytes = new byte[buffer.readableByteCount()];
+					buffer.read(bytes);
+					DataBufferUtils.release(buffer);
+					return bytes;
+				});
+	}
+
+	private Mono<JsonNode> loadInlineTranscript(String callRecordId) {
+		Object id = ObjectId.isValid(callRecordId) ? new ObjectId(callRecordId) : callRecordId;
+		Query query = Query.query(Criteria.where("_id").is(id));
+		query.fields().include(TRANSCRIPT);
+		return mongoTemplate.findOne(query, Document.class, "agent_calls")
+				.mapNotNull(document -> document.get(TRANSCRIPT))
+				.map(JsonNodeConverters::toJsonNode);
+	}
+
+	private byte[] compress(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+		Deflater deflater = new Deflater(properties.compressionLevel());
+		try (DeflaterOutputStream deflating = new DeflaterOutputStream(out, deflater)) {
+			deflating.write(data);
+		} finally {
+			deflater.end();
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] decompress(byte[] data) throws IOException {
+		try (InputStream inflating = new InflaterInputStream(new ByteArrayInputStream(data))) {
+			return inflating.readAllBytes();
+		}
+	}
+
+	private static Query gridFsQuery(String filename) {
+		return Query.query(Criteria.where("filename").is(filename));
+	}
+
+	private static String payloadId(String callRecordId, String kind) {
+		return callRecordId + ":" + kind;
+	}
+
+	private record Encoded(int uncompressedSize, byte[] compressed) {
+	}
+}
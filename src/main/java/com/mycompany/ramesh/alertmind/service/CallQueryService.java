@@ -0,0 +1,145 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.mycompany.ramesh.alertmind.dto.CallPage;
+import com.mycompany.ramesh.alertmind.dto.CallSummary;
+import com.mycompany.ramesh.alertmind.dto.PageCursor;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Call record search, newest first. Every filter combination starts with an equality field that
+ * leads one of the (field, createdAt, _id) indexes on {@code agent_calls}, or with the plain
+ * (createdAt, _id) index, so the createdAt range and the keyset position are both index bounds
+ * and a page reads only its own documents, projected to the summary fields.
+ */
+@Service
+public class CallQueryService {
+
+	private static final Logger log = LoggerFactory.getLogger(CallQueryService.class);
+	private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "_id");
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final MigrationRunner migrationRunner;
+
+	public CallQueryService(ReactiveMongoTemplate mongoTemplate, MigrationRunner migrationRunner) {
+		this.mongoTemplate = mongoTemplate;
+		this.migrationRunner = migrationRunner;
+	}
+
+	/**
+	 * Search filters; null fields match every call. {@code from} is inclusive, {@code to}
+	 * exclusive.
+	 */
+	public record Filter(
+			String incidentNumber,
+			String toNumber,
+			String status,
+			String priority,
+			Instant from,
+			Instant to
+	) {
+	}
+
+	public Mono<CallPage> search(Filter filter, String cursor, int limit) {
+		Query query = searchQuery(filter, cursor != null ? PageCursor.decode(cursor) : null)
+				.limit(limit + 1);
+
+		return mongoTemplate.find(query, AgentCall.class)
+				.map(CallSummary::from)
+				.collectList()
+				.map(summaries -> {
+					if (summaries.size() <= limit) {
+						return new CallPage(summaries, null);
+					}
+					List<CallSummary> items = summaries.subList(0, limit);
+					CallSummary last = items.get(limit - 1);
+					return new CallPage(List.copyOf(items), new PageCursor(last.createdAt(), last.id()).encode());
+				});
+	}
+
+	/**
+	 * Copies incidentNumber and priority out of the request payload of records written before
+	 * they were promoted to fields, so the search indexes cover them too. The query matches
+	 * no index, so it runs once per database rather than on every start.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillPromotedFields() {
+		Query legacy = Query.query(Criteria.where("incidentNumber").exists(false)
+				.and("requestPayload.incidentNumber").exists(true));
+		AggregationUpdate update = AggregationUpdate.update()
+				.set("incidentNumber").toValueOf(Fields.field("requestPayload.incidentNumber"))
+				.set("priority").toValueOf(Fields.field("requestPayload.priority"));
+		migrationRunner.runOnce("agent_calls.search-fields",
+						mongoTemplate.updateMulti(legacy, update, AgentCall.class).map(UpdateResult::getModifiedCount))
+				.subscribe(null, error -> log.error("Failed to backfill call search fields: {}", error.getMessage()));
+	}
+
+	/**
+	 * Copies conversationId out of the raw response of records written before it was promoted
+	 * to a field, so lookups by conversation id only ever need its index. Records mapped as beans
+	 * before the JsonNode converters keep the value under {@code _children}. Runs once per
+	 * database, like {@link #backfillPromotedFields()}.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillConversationIds() {
+		Query legacy = Query.query(Criteria.where("conversationId").exists(false).orOperator(
+				Criteria.where("rawResponse.conversation_id").exists(true),
+				Criteria.where("rawResponse._children.conversation_id._value").exists(true)));
+		AggregationUpdate update = AggregationUpdate.update()
+				.set("conversationId").toValue(ConditionalOperators.ifNull("rawResponse.conversation_id")
+						.thenValueOf("rawResponse._children.conversation_id._value"));
+		migrationRunner.runOnce("agent_calls.conversation-id",
+						mongoTemplate.updateMulti(legacy, update, AgentCall.class).map(UpdateResult::getModifiedCount))
+				.subscribe(null, error -> log.error("Failed to backfill call conversation ids: {}", error.getMessage()));
+	}
+
+	private static Query searchQuery(Filter filter, PageCursor after) {
+		List<Criteria> criteria = new ArrayList<>();
+		if (filter.incidentNumber() != null) {
+			criteria.add(Criteria.where("incidentNumber").is(filter.incidentNumber()));
+		}
+		if (filter.toNumber() != null) {
+			criteria.add(Criteria.where("toNumber").is(filter.toNumber()));
+		}
+		if (filter.status() != null) {
+			criteria.add(Criteria.where("status").is(filter.status()));
+		}
+		if (filter.priority() != null) {
+			criteria.add(Criteria.where("priority").is(filter.priority()));
+		}
+		if (filter.from() != null) {
+			criteria.add(Criteria.where("createdAt").gte(filter.from()));
+		}
+		if (filter.to() != null) {
+			criteria.add(Criteria.where("createdAt").lt(filter.to()));
+		}
+		if (after != null) {
+			criteria.add(new Criteria().orOperator(
+					Criteria.where("createdAt").lt(after.createdAt()),
+					Criteria.where("createdAt").is(after.createdAt()).and("_id").lt(after.id())));
+		}
+
+		Query query = criteria.isEmpty() ? new Query() : Query.query(new Criteria().andOperator(criteria));
+		query.with(NEWEST_FIRST);
+		query.fields().include("callId", "conversationId", "incidentNumber", "priority", "toNumber", "status",
+				"provider", "failureReason", "createdAt", "lastUpdatedAt");
+		return query;
+	}
+}
@@ -0,0 +1,217 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mycompany.ramesh.alertmind.config.ReconciliationProperties;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resolves calls whose status webhooks never arrived. Each sweep pages through the non-terminal
+ * calls that have not been updated for {@code stale-after}, using the (status, lastUpdatedAt)
+ * index and keyset pagination, refreshes them at a bounded rate from the provider that dialed
+ * them and applies the result through {@link CallStatusUpdater}, like the webhook would have.
+ * Every refresh bumps {@code lastUpdatedAt}, so a call that is still in progress is only looked
+ * at again once it has gone stale again. A failed refresh bumps it as well and counts the attempt
+ * in {@code reconcileAttempts}; after {@code max-attempts} failures in a row the call is failed,
+ * so calls the provider no longer knows cannot hold back the ones behind them.
+ * <p>
+ * The sweep runs on every instance, and each refreshes only the calls whose id falls in one of
+ * its partitions, so the provider lookups are split across the cluster. The rate and per-sweep
+ * limits apply per instance.
+ */
+@Service
+public class CallReconciler {
+
+	private static final Logger log = LoggerFactory.getLogger(CallReconciler.class);
+	private static final String ATTEMPTS_FIELD = "reconcileAttempts";
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ElevenLabsClient elevenLabsClient;
+	private final TwilioClient twilioClient;
+	private final CallStatusUpdater callStatusUpdater;
+	private final ReconciliationProperties properties;
+	private final PartitionOwnershipService partitionOwnershipService;
+	private final MeterRegistry meterRegistry;
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	public CallReconciler(ReactiveMongoTemplate mongoTemplate,
+						  ElevenLabsClient elevenLabsClient,
+						  TwilioClient twilioClient,
+						  CallStatusUpdater callStatusUpdater,
+						  ReconciliationProperties properties,
+						  PartitionOwnershipService partitionOwnershipService,
+						  MeterRegistry meterRegistry) {
+		this.mongoTemplate = mongoTemplate;
+		this.elevenLabsClient = elevenLabsClient;
+		this.twilioClient = twilioClient;
+		this.callStatusUpdater = callStatusUpdater;
+		this.properties = properties;
+		this.partitionOwnershipService = partitionOwnershipService;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Scheduled(fixedDelayString = "${app.reconciliation.sweep-interval}", initialDelayString = "${app.reconciliation.sweep-interval}")
+	public Mono<Void> sweep() {
+		if (!properties.enabled() || partitionOwnershipService.ownedPartitions().isEmpty()
+				|| !running.compareAndSet(false, true)) {
+			return Mono.empty();
+		}
+		Instant cutoff = Instant.now().minus(properties.staleAfter());
+		Duration spacing = Duration.ofNanos(Duration.ofSeconds(1).toNanos() / properties.ratePerSecond());
+
+		// Records written before lastUpdatedAt existed are found by createdAt instead
+		Flux<AgentCall> stale = Flux.concat(
+				stalePages(Criteria.where("lastUpdatedAt").lt(cutoff), "lastUpdatedAt"),
+				stalePages(Criteria.where("lastUpdatedAt").exists(false).and("createdAt").lt(cutoff), "createdAt"));
+
+		return stale
+				// Every instance pages through the same stale calls and refreshes those in its partitions
+				.filter(call -> partitionOwnershipService.owns(call.id()))
+				.take(properties.maxPerSweep())
+				.delayElements(spacing)
+				.flatMap(this::reconcile, properties.concurrency())
+				.count()
+				.doOnNext(count -> {
+					if (count > 0) {
+						log.info("Reconciled {} stale calls", count);
+					}
+				})
+				.onErrorResume(error -> {
+					log.error("Call reconciliation sweep failed: {}", error.getMessage(), error);
+					return Mono.empty();
+				})
+				.doFinally(signal -> running.set(false))
+				.then();
+	}
+
+	/**
+	 * Stale non-terminal calls ordered by {@code dateField} and id, read one page at a time; each
+	 * page starts after the last call of the previous one rather than skipping over it.
+	 */
+	private Flux<AgentCall> stalePages(Criteria staleness, String dateField) {
+		return page(staleness, dateField, null)
+				.expand(page -> page.size() < properties.pageSize()
+						? Mono.empty()
+						: page(staleness, dateField, page.get(page.size() - 1)))
+				.flatMapIterable(page -> page);
+	}
+
+	private Mono<List<AgentCall>> page(Criteria staleness, String dateField, AgentCall after) {
+		Criteria criteria = new Criteria().andOperator(
+				Criteria.where("status").nin(AgentCall.TERMINAL_STATUSES),
+				staleness);
+		if (after != null) {
+			Instant last = "lastUpdatedAt".equals(dateField) ? after.lastUpdatedAt() : after.createdAt();
+			criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+					Criteria.where(dateField).gt(last),
+					Criteria.where(dateField).is(last).and("_id").gt(after.id())));
+		}
+		Query query = Query.query(criteria)
+				.with(Sort.by(dateField, "_id"))
+				.limit(properties.pageSize());
+		return mongoTemplate.find(query, AgentCall.class).collectList();
+	}
+
+	/**
+	 * Refreshes one call. A call that never got a call id was not placed and is failed;
+	 * errors are counted and the call is left for a later sweep until it runs out of attempts.
+	 */
+	private Mono<AgentCall> reconcile(AgentCall call) {
+		if (call.callId() == null) {
+			log.warn("Call {} to {} was never placed, marking it failed", call.id(), call.toNumber());
+			return apply(call, call.withFailure("No call was placed"), Mono.empty(), "abandoned");
+		}
+		boolean twilio = TwilioClient.PROVIDER.equals(call.provider());
+		Mono<JsonNode> refresh = twilio
+				? twilioClient.getCall(call.callId())
+				: elevenLabsClient.getCallTranscript(call.callId());
+		return refresh
+				.flatMap(details -> {
+					String status = twilio
+							? Objects.requireNonNullElse(twilioClient.extractCallStatus(details), call.status())
+							: normalizeStatus(elevenLabsClient.extractCallStatus(details), call.status());
+					AgentCall updated = call.withStatusUpdate(status, details);
+					// Calls dialed through Twilio directly have no conversation to transcribe
+					boolean completed = !twilio && "completed".equals(status);
+					log.info("Reconciled call {}: {} -> {}", call.callId(), call.status(), status);
+					return apply(call, updated, completed ? Mono.just(details) : Mono.empty(),
+							status.equalsIgnoreCase(call.status()) ? "unchanged" : "updated");
+				})
+				.onErrorResume(error -> {
+					log.warn("Failed to reconcile call {}: {}", call.callId(), error.getMessage());
+					count("failed");
+					return recordFailedAttempt(call);
+				});
+	}
+
+	/**
+	 * Counts a failed refresh and bumps {@code lastUpdatedAt}, moving the call behind the others
+	 * until it is stale again. Skipped if the call changed since it was read. The field is not
+	 * mapped on {@link AgentCall}, so the next save of the call resets it.
+	 */
+	private Mono<AgentCall> recordFailedAttempt(AgentCall call) {
+		Query unchanged = Query.query(Criteria.where("_id").is(call.id())
+				.and("status").is(call.status())
+				.and("lastUpdatedAt").is(call.lastUpdatedAt()));
+		Update update = new Update().inc(ATTEMPTS_FIELD, 1).set("lastUpdatedAt", Instant.now());
+		return mongoTemplate.findAndModify(unchanged, update, FindAndModifyOptions.options().returnNew(true),
+						Document.class, mongoTemplate.getCollectionName(AgentCall.class))
+				.flatMap(document -> {
+					int attempts = document.getInteger(ATTEMPTS_FIELD, 0);
+					if (attempts < properties.maxAttempts()) {
+						return Mono.empty();
+					}
+					log.warn("Giving up on call {} after {} failed reconciliations, marking it failed", call.callId(), attempts);
+					return apply(call, call.withFailure("Status could not be reconciled after " + attempts + " attempts"),
+							Mono.empty(), "gave_up");
+				})
+				.onErrorResume(error -> {
+					log.warn("Failed to record reconciliation attempt for call {}: {}", call.callId(), error.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	private Mono<AgentCall> apply(AgentCall existing, AgentCall updated, Mono<JsonNode> transcript, String outcome) {
+		return callStatusUpdater.apply(existing, updated, transcript)
+				.doOnNext(saved -> count(outcome));
+	}
+
+	private void count(String outcome) {
+		meterRegistry.counter("alertmind.reconciliation.calls", "outcome", outcome).increment();
+	}
+
+	/**
+	 * Maps ElevenLabs conversation statuses onto the statuses the webhooks produce, so reconciled
+	 * calls end in the same terminal states. Unknown values are kept as they are.
+	 */
+	private static String normalizeStatus(String status, String current) {
+		if (status == null || status.isBlank()) {
+			return current;
+		}
+		return switch (status.toLowerCase()) {
+			case "done", "processing" -> "completed";
+			case "in-progress", "in_progress" -> "answered";
+			case "failed" -> "failed";
+			default -> status;
+		};
+	}
+}
@@ -0,0 +1,101 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mycompany.ramesh.alertmind.config.StatusCacheProperties;
+import com.mycompany.ramesh.alertmind.dto.CallStatusResponse;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+
+/**
+ * In-memory cache of {@link CallStatusResponse}s keyed by callId and by conversationId. Entries
+ * are evicted on every node through the shared {@code agent_calls} change stream; the TTL only
+ * bounds staleness while that stream is reconnecting. Calls in a terminal status no longer
+ * change, so they are kept longer than active ones.
+ */
+@Service
+public class CallStatusCache {
+
+	private static final Logger log = LoggerFactory.getLogger(CallStatusCache.class);
+
+	private final StatusCacheProperties properties;
+	private final CallStatusStreamService callStatusStreamService;
+	private final Cache<String, CallStatusResponse> cache;
+	private Disposable invalidation;
+
+	public CallStatusCache(StatusCacheProperties properties, CallStatusStreamService callStatusStreamService) {
+		this.properties = properties;
+		this.callStatusStreamService = callStatusStreamService;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(properties.maximumSize())
+				.expireAfter(Expiry.writing((String key, CallStatusResponse value) ->
+						AgentCall.isTerminalStatus(value.status()) ? properties.terminalTtl() : properties.activeTtl()))
+				.build();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void subscribeToInvalidations() {
+		if (!properties.enabled()) {
+			return;
+		}
+		this.invalidation = callStatusStreamService.changes()
+				.subscribe(this::invalidate,
+						error -> log.error("Call status cache invalidation stopped: {}", error.getMessage()));
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (invalidation != null) {
+			invalidation.dispose();
+		}
+	}
+
+	public CallStatusResponse get(String callId, String conversationId) {
+		if (!properties.enabled()) {
+			return null;
+		}
+		if (callId != null && !callId.isBlank()) {
+			return cache.getIfPresent(callKey(callId));
+		}
+		if (conversationId != null && !conversationId.isBlank()) {
+			return cache.getIfPresent(conversationKey(conversationId));
+		}
+		return null;
+	}
+
+	public void put(AgentCall call, CallStatusResponse response) {
+		if (!properties.enabled() || response.status() == null) {
+			return;
+		}
+		if (call.callId() != null) {
+			cache.put(callKey(call.callId()), response);
+		}
+		if (call.conversationId() != null) {
+			cache.put(conversationKey(call.conversationId()), response);
+		}
+	}
+
+	public void invalidate(AgentCall call) {
+		if (call.callId() != null) {
+			cache.invalidate(callKey(call.callId()));
+		}
+		if (call.conversationId() != null) {
+			cache.invalidate(conversationKey(call.conversationId()));
+		}
+	}
+
+	private static String callKey(String callId) {
+		return "call:" + callId;
+	}
+
+	private static String conversationKey(String conversationId) {
+		return "conversation:" + conversationId;
+	}
+}
@@ -0,0 +1,140 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mongodb.MongoException;
+import com.mycompany.ramesh.alertmind.dto.CallStatusEvent;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Publishes {@link AgentCall} writes and status transitions from a single change stream cursor on
+ * {@code agent_calls}. The cursor is opened with the first subscriber, shared by all of them and
+ * closed when the last one leaves; after a failure it resumes from the last seen resume token.
+ * A new cursor starts at the current cluster time, so a subscriber can subscribe first and then
+ * read the current state without missing the writes in between.
+ */
+@Service
+public class CallStatusStreamService {
+
+	private static final Logger log = LoggerFactory.getLogger(CallStatusStreamService.class);
+	private static final int TRACKED_CALLS = 10_000;
+	private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+	private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+	// Covers clock skew between this node and the cluster when a stream starts at the current time
+	private static final Duration OPEN_MARGIN = Duration.ofSeconds(2);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final Map<String, String> lastStatusByRecord = Collections.synchronizedMap(
+			new LinkedHashMap<String, String>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+					return size() > TRACKED_CALLS;
+				}
+			});
+	private final Flux<AgentCall> changes;
+	private final Flux<CallStatusEvent> events;
+	private volatile BsonValue resumeToken;
+
+	public CallStatusStreamService(ReactiveMongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+		this.changes = Flux.defer(this::watchAgentCalls)
+				.retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+						.maxBackoff(Duration.ofSeconds(30))
+						.doBeforeRetry(signal -> log.warn("Call status change stream failed, reconnecting: {}",
+								signal.failure().getMessage())))
+				// The next subscriber opens a new stream rather than resuming a token that may be gone
+				.doOnCancel(() -> resumeToken = null)
+				.share();
+		this.events = changes
+				.filter(this::isStatusTransition)
+				.map(CallStatusEvent::from)
+				.share();
+	}
+
+	/**
+	 * Every write to {@code agent_calls}, including those that leave the status unchanged.
+	 */
+	public Flux<AgentCall> changes() {
+		return changes;
+	}
+
+	/**
+	 * Status transitions matching all of the given filters; null filters match every call.
+	 * A subscription for a single call completes once that call reaches a terminal status.
+	 */
+	public Flux<CallStatusEvent> subscribe(String callId, String conversationId, String incidentNumber) {
+		Flux<CallStatusEvent> matching = events
+				.filter(event -> callId == null || callId.equals(event.callId()))
+				.filter(event -> conversationId == null || conversationId.equals(event.conversationId()))
+				.filter(event -> incidentNumber == null || incidentNumber.equals(event.incidentNumber()));
+
+		if (callId != null || conversationId != null) {
+			return matching.takeUntil(event -> AgentCall.isTerminalStatus(event.status()));
+		}
+		return matching;
+	}
+
+	private Flux<AgentCall> watchAgentCalls() {
+		ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+				.filter(Aggregation.newAggregation(Aggregation.match(
+						Criteria.where("operationType").in("insert", "update", "replace"))))
+				.returnFullDocumentOnUpdate();
+		if (resumeToken != null) {
+			options.resumeAfter(resumeToken);
+		} else {
+			// A subscriber that reads the current state after subscribing sees every write after it
+			options.resumeAt(Instant.now().minus(OPEN_MARGIN));
+		}
+
+		log.info("Opening call status change stream on agent_calls");
+		return mongoTemplate.changeStream("agent_calls", options.build(), AgentCall.class)
+				.doOnNext(event -> resumeToken = event.getResumeToken())
+				.doOnError(error -> {
+					if (isHistoryLost(error)) {
+						log.warn("Resume token of the call status change stream is no longer in the oplog, starting over");
+						resumeToken = null;
+					}
+				})
+				.map(ChangeStreamEvent::getBody)
+				.filter(Objects::nonNull)
+				.doFinally(signal -> log.info("Call status change stream closed: {}", signal));
+	}
+
+	private static boolean isHistoryLost(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof MongoException mongoException
+					&& (mongoException.getCode() == CHANGE_STREAM_HISTORY_LOST || mongoException.getCode() == CHANGE_STREAM_FATAL_ERROR)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Saves replace the whole document, so only changes whose status differs from the last one
+	 * seen for the record are forwarded. The most recently active calls are tracked.
+	 */
+	private boolean isStatusTransition(AgentCall call) {
+		if (call.id() == null || call.status() == null) {
+			return false;
+		}
+		String previous = lastStatusByRecord.put(call.id(), call.status());
+		return !call.status().equals(previous);
+	}
+}
@@ -0,0 +1,99 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Applies a status change to a stored call: saves it, with its transcript stored and indexed for
+ * search when one is supplied, frees or renews its quota slot and records the transition. The
+ * webhook, the status refresh and the reconciliation sweep all go through here so a call ends up
+ * the same whichever of them saw the change first. Provider callbacks can arrive late or out of
+ * order, so an update that would move a call out of a terminal status, or back to an earlier
+ * progress status, is ignored.
+ */
+@Service
+public class CallStatusUpdater {
+
+	private static final Logger log = LoggerFactory.getLogger(CallStatusUpdater.class);
+
+	/**
+	 * Order of the statuses a call passes through before it ends.
+	 */
+	private static final Map<String, Integer> PROGRESS = Map.of(
+			"created", 0,
+			"initiated", 1,
+			"ringing", 2,
+			"answered", 3);
+
+	private final AgentCallWriter agentCallWriter;
+	private final CallConcurrencyLimiter callConcurrencyLimiter;
+	private final CallPayloadStore callPayloadStore;
+	private final CallTransitionRecorder callTransitionRecorder;
+	private final TranscriptSearchService transcriptSearchService;
+
+	public CallStatusUpdater(AgentCallWriter agentCallWriter,
+							 CallConcurrencyLimiter callConcurrencyLimiter,
+							 CallPayloadStore callPayloadStore,
+							 CallTransitionRecorder callTransitionRecorder,
+							 TranscriptSearchService transcriptSearchService) {
+		this.agentCallWriter = agentCallWriter;
+		this.callConcurrencyLimiter = callConcurrencyLimiter;
+		this.callPayloadStore = callPayloadStore;
+		this.callTransitionRecorder = callTransitionRecorder;
+		this.transcriptSearchService = transcriptSearchService;
+	}
+
+	/**
+	 * Saves {@code updated}, the new version of {@code existing}. If {@code transcript} emits, the
+	 * transcript is stored with the call; if it fails the call is saved without it. A stale
+	 * update is dropped and {@code existing} is emitted unchanged.
+	 */
+	public Mono<AgentCall> apply(AgentCall existing, AgentCall updated, Mono<JsonNode> transcript) {
+		if (isStale(existing.status(), updated.status())) {
+			log.info("Ignoring status {} for call {}, which is already {}",
+					updated.status(), existing.callId(), existing.status());
+			return Mono.just(existing);
+		}
+		return transcript
+				.flatMap(details -> callPayloadStore.saveTranscript(updated.id(), details)
+						.then(transcriptSearchService.index(updated, details))
+						.then(agentCallWriter.save(updated.withTranscriptStored(Instant.now())))
+						.doOnSuccess(saved -> log.info("Transcript saved for call: {}", saved.callId())))
+				.onErrorResume(error -> {
+					log.error("Failed to store transcript for call {}: {}", updated.callId(), error.getMessage());
+					return Mono.empty();
+				})
+				.switchIfEmpty(Mono.defer(() -> agentCallWriter.save(updated)))
+				.flatMap(this::releaseOrRenewCallSlot)
+				.flatMap(saved -> callTransitionRecorder.record(existing, saved));
+	}
+
+	private static boolean isStale(String current, String next) {
+		if (current == null || next == null || current.equalsIgnoreCase(next)) {
+			return false;
+		}
+		if (AgentCall.isTerminalStatus(current)) {
+			return true;
+		}
+		Integer currentStep = PROGRESS.get(current.toLowerCase());
+		Integer nextStep = PROGRESS.get(next.toLowerCase());
+		return currentStep != null && nextStep != null && nextStep < currentStep;
+	}
+
+	/**
+	 * Free the call's quota slot once it reaches a terminal status, otherwise extend its lease
+	 */
+	private Mono<AgentCall> releaseOrRenewCallSlot(AgentCall call) {
+		Mono<Void> slotUpdate = AgentCall.isTerminalStatus(call.status())
+				? callConcurrencyLimiter.release(call.id())
+				: callConcurrencyLimiter.renew(call.id());
+		return slotUpdate.thenReturn(call);
+	}
+}
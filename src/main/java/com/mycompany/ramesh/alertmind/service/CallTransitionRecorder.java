@@ -0,0 +1,47 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Single entry point for everything derived from a call changing status, so the webhook, the
+ * status refresh and the create flow all feed analytics, stage latencies and fan-out
+ * cancellation the same way.
+ */
+@Service
+public class CallTransitionRecorder {
+
+	private final CallAnalyticsService callAnalyticsService;
+	private final CallLatencyService callLatencyService;
+	private final FanOutCancellationService fanOutCancellationService;
+
+	public CallTransitionRecorder(CallAnalyticsService callAnalyticsService,
+								  CallLatencyService callLatencyService,
+								  FanOutCancellationService fanOutCancellationService) {
+		this.callAnalyticsService = callAnalyticsService;
+		this.callLatencyService = callLatencyService;
+		this.fanOutCancellationService = fanOutCancellationService;
+	}
+
+	/**
+	 * Records the stages completed by saving the request record of a new call and emits it.
+	 * Never fails.
+	 */
+	public Mono<AgentCall> recordCreated(AgentCall created) {
+		return callLatencyService.recordCreated(created).then(Mono.just(created));
+	}
+
+	/**
+	 * Records the transition from {@code previous} to the saved {@code current} and emits
+	 * {@code current}. Calls canceled as a consequence are recorded as well. Never fails.
+	 */
+	public Mono<AgentCall> record(AgentCall previous, AgentCall current) {
+		return Mono.when(
+						callAnalyticsService.recordTransition(previous, current),
+						callLatencyService.recordTransition(previous, current))
+				.thenMany(fanOutCancellationService.onTransition(previous, current))
+				.concatMap(canceled -> record(canceled.previous(), canceled.canceled()))
+				.then(Mono.just(current));
+	}
+}
@@ -9,12 +9,14 @@ import com.mycompany.ramesh.alertmind.dto.CreateOutboundCallRequest;
 import com.mycompany.ramesh.alertmind.dto.CreateOutboundCallResponse;
 import com.mycompany.ramesh.alertmind.dto.IncidentCreateRequest;
 import com.mycompany.ramesh.alertmind.exception.UpstreamServiceException;
-import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
@@ -27,25 +29,28 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @Service
-public class ElevenLabsClient {
+public class ElevenLabsClient implements CallDialer {
+
+	public static final String PROVIDER = "elevenlabs";
 
 	private static final Logger log = LoggerFactory.getLogger(ElevenLabsClient.class);
 
 	private final WebClient webClient;
 	private final ElevenLabsProperties properties;
-	private String systemPromptTemplate;
-	private String firstMessageTemplate;
+	private final MeterRegistry meterRegistry;
+	private final String systemPromptTemplate;
+	private final String firstMessageTemplate;
 
 	public ElevenLabsClient(WebClient elevenLabsWebClient,
-						ElevenLabsProperties properties) {
+						ElevenLabsProperties properties,
+						MeterRegistry meterRegistry) throws IOException {
 		this.webClient = elevenLabsWebClient;
 		this.properties = properties;
-	}
-
-	@PostConstruct
-	public void init() throws IOException {
+		this.meterRegistry = meterRegistry;
+		// Read once while the context starts, so a missing template fails startup rather than a callout
 		this.systemPromptTemplate = properties.systemPromptFile()
 				.getContentAsString(StandardCharsets.UTF_8);
 		this.firstMessageTemplate = properties.firstMessageFile()
@@ -57,23 +62,23 @@ public class ElevenLabsClient {
 		log.info("Creating ElevenLabs agent with name: {}", request.name());
 		log.debug("Request payload: {}", payload);
 
-		return webClient.post()
-				.uri(properties.agentsPath())
-				.bodyValue(payload)
-				.retrieve()
-				.onStatus(HttpStatusCode::isError, response ->
-					response.bodyToMono(String.class)
-						.defaultIfEmpty("")
-						.flatMap(errorBody -> {
-							log.error("ElevenLabs API error - Status: {}, Body: {}",
-									response.statusCode(), errorBody);
-							return Mono.error(new UpstreamServiceException(
-									response.statusCode(), errorBody));
-						}))
-				.bodyToMono(JsonNode.class)
-				.doOnSuccess(response -> log.info("Successfully created agent: {}", extractAgentId(response)))
-				.doOnError(error -> log.error("Failed to create agent: {}", error.getMessage()))
-				.map(response -> new CreateElevenLabsAgentResponse(extractAgentId(response), response));
+		return timed("create_agent", webClient.post()
+					.uri(properties.agentsPath())
+					.bodyValue(payload)
+					.retrieve()
+					.onStatus(HttpStatusCode::isError, response ->
+						response.bodyToMono(String.class)
+							.defaultIfEmpty("")
+							.flatMap(errorBody -> {
+								log.error("ElevenLabs API error - Status: {}, Body: {}",
+										response.statusCode(), errorBody);
+								return Mono.error(new UpstreamServiceException(
+										response.statusCode(), errorBody));
+							}))
+					.bodyToMono(JsonNode.class)
+					.doOnSuccess(response -> log.info("Successfully created agent: {}", extractAgentId(response)))
+					.doOnError(error -> log.error("Failed to create agent: {}", error.getMessage()))
+					.map(response -> new CreateElevenLabsAgentResponse(extractAgentId(response), response)));
 	}
 
 	public Mono<CreateElevenLabsAgentResponse> createAgentForIncident(IncidentCreateRequest incident) {
@@ -104,66 +109,117 @@ public class ElevenLabsClient {
 
 	public Mono<Void> deleteAgent(String agentId) {
 		log.info("Deleting ElevenLabs agent: {}", agentId);
-		return webClient.delete()
-				.uri(uriBuilder -> uriBuilder.path(properties.agentsPath()).path("/{agentId}")
-						.build(agentId))
-				.retrieve()
-				.onStatus(HttpStatusCode::isError, response ->
-					response.bodyToMono(String.class)
-						.defaultIfEmpty("")
-						.flatMap(errorBody -> {
-							log.error("ElevenLabs API error deleting agent {} - Status: {}, Body: {}",
-									agentId, response.statusCode(), errorBody);
-							return Mono.error(new UpstreamServiceException(
-									response.statusCode(), errorBody));
-						}))
-				.bodyToMono(Void.class)
-				.doOnSuccess(v -> log.info("Successfully deleted agent: {}", agentId))
-				.doOnError(error -> log.error("Failed to delete agent {}: {}", agentId, error.getMessage()));
+		return timed("delete_agent", webClient.delete()
+					.uri(uriBuilder -> uriBuilder.path(properties.agentsPath()).path("/{agentId}")
+							.build(agentId))
+					.retrieve()
+					.onStatus(HttpStatusCode::isError, response ->
+						response.bodyToMono(String.class)
+							.defaultIfEmpty("")
+							.flatMap(errorBody -> {
+								log.error("ElevenLabs API error deleting agent {} - Status: {}, Body: {}",
+										agentId, response.statusCode(), errorBody);
+								return Mono.error(new UpstreamServiceException(
+										response.statusCode(), errorBody));
+							}))
+					.bodyToMono(Void.class)
+					.doOnSuccess(v -> log.info("Successfully deleted agent: {}", agentId))
+					.doOnError(error -> log.error("Failed to delete agent {}: {}", agentId, error.getMessage())));
 	}
 
 	public Mono<CreateOutboundCallResponse> createOutboundCall(CreateOutboundCallRequest request) {
 		var payload = ElevenLabsOutboundCallPayload.from(request, properties);
 		log.info("Creating ElevenLabs outbound call to: {}", request.toNumber());
 
-		return webClient.post()
-				.uri(properties.callsPath())
-				.bodyValue(payload)
-				.retrieve()
-				.onStatus(HttpStatusCode::isError, response ->
-					response.bodyToMono(String.class)
-						.defaultIfEmpty("")
-						.flatMap(errorBody -> {
-							log.error("ElevenLabs call API error - Status: {}, Body: {}",
-									response.statusCode(), errorBody);
-							return Mono.error(new UpstreamServiceException(
-									response.statusCode(), errorBody));
-						}))
-				.bodyToMono(JsonNode.class)
-				.doOnSuccess(response -> log.info("Successfully created call: {}", extractCallId(response)))
-				.doOnError(error -> log.error("Failed to create call: {}", error.getMessage()))
-				.map(response -> new CreateOutboundCallResponse(extractCallId(response), response));
+		return timed("create_call", webClient.post()
+					.uri(properties.callsPath())
+					.bodyValue(payload)
+					.retrieve()
+					.onStatus(HttpStatusCode::isError, response ->
+						response.bodyToMono(String.class)
+							.defaultIfEmpty("")
+							.flatMap(errorBody -> {
+								log.error("ElevenLabs call API error - Status: {}, Body: {}",
+										response.statusCode(), errorBody);
+								return Mono.error(new UpstreamServiceException(
+										response.statusCode(), errorBody));
+							}))
+					.bodyToMono(JsonNode.class)
+					.doOnSuccess(response -> log.info("Successfully created call: {}", extractCallId(response)))
+					.doOnError(error -> log.error("Failed to create call: {}", error.getMessage()))
+					.map(response -> new CreateOutboundCallResponse(extractCallId(response), response)));
 	}
 	
+	@Override
+	public String provider() {
+		return PROVIDER;
+	}
+
+	/**
+	 * Places the call through the ElevenLabs agent, which dials out over its Twilio number.
+	 */
+	@Override
+	public Mono<DialedCall> dial(CreateOutboundCallRequest request) {
+		return createOutboundCall(request)
+				.map(response -> new DialedCall(PROVIDER, response.callId(), properties.agentId(),
+						properties.agentPhoneNumberId(), extractCallStatus(response.rawResponse()), response.rawResponse()));
+	}
+
 	public Mono<JsonNode> getCallTranscript(String callId) {
 		log.info("Fetching transcript for call: {}", callId);
 		
-		return webClient.get()
-				.uri(uriBuilder -> uriBuilder.path(properties.callsPath()).path("/{callId}")
-						.build(callId))
-				.retrieve()
-				.onStatus(HttpStatusCode::isError, response ->
-					response.bodyToMono(String.class)
-						.defaultIfEmpty("")
-						.flatMap(errorBody -> {
-							log.error("ElevenLabs get call API error - Status: {}, Body: {}",
-									response.statusCode(), errorBody);
-							return Mono.error(new UpstreamServiceException(
-									response.statusCode(), errorBody));
-						}))
-				.bodyToMono(JsonNode.class)
-				.doOnSuccess(response -> log.info("Successfully fetched call details for: {}", callId))
-				.doOnError(error -> log.error("Failed to fetch call details for {}: {}", callId, error.getMessage()));
+		return timed("get_call", webClient.get()
+					.uri(uriBuilder -> uriBuilder.path(properties.callsPath()).path("/{callId}")
+							.build(callId))
+					.retrieve()
+					.onStatus(HttpStatusCode::isError, response ->
+						response.bodyToMono(String.class)
+							.defaultIfEmpty("")
+							.flatMap(errorBody -> {
+								log.error("ElevenLabs get call API error - Status: {}, Body: {}",
+										response.statusCode(), errorBody);
+								return Mono.error(new UpstreamServiceException(
+										response.statusCode(), errorBody));
+							}))
+					.bodyToMono(JsonNode.class)
+					.doOnSuccess(response -> log.info("Successfully fetched call details for: {}", callId))
+					.doOnError(error -> log.error("Failed to fetch call details for {}: {}", callId, error.getMessage())));
+	}
+
+	/**
+	 * Records the latency of an ElevenLabs API operation, tagged with the operation and the class
+	 * of the response status, or the kind of failure when no response was received.
+	 */
+	private <T> Mono<T> timed(String operation, Mono<T> request) {
+		return Mono.defer(() -> {
+			Timer.Sample sample = Timer.start(meterRegistry);
+			return request
+					.doOnSuccess(response -> stopTimer(sample, operation, "2xx", "success"))
+					.doOnError(error -> stopTimer(sample, operation, statusClassOf(error), "error"))
+					.doOnCancel(() -> stopTimer(sample, operation, "none", "canceled"));
+		});
+	}
+
+	private void stopTimer(Timer.Sample sample, String operation, String status, String outcome) {
+		sample.stop(Timer.builder("alertmind.elevenlabs.requests")
+				.description("ElevenLabs API request latency")
+				.tag("operation", operation)
+				.tag("status", status)
+				.tag("outcome", outcome)
+				.register(meterRegistry));
+	}
+
+	private static String statusClassOf(Throwable error) {
+		if (error instanceof UpstreamServiceException upstream) {
+			return upstream.getStatus().value() / 100 + "xx";
+		}
+		if (error instanceof WebClientRequestException) {
+			return "io_error";
+		}
+		if (error instanceof TimeoutException) {
+			return "timeout";
+		}
+		return "unknown";
 	}
 
 	public String getAgentId() {
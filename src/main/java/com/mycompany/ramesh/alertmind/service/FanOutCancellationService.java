@@ -0,0 +1,127 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import com.mycompany.ramesh.alertmind.entity.CallFanOut;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Ends the other calls of a fan-out once one recipient has answered, for fan-outs created with
+ * {@code cancelOnAcknowledge}. The fan-out is claimed with a conditional update, so the siblings
+ * are canceled once even when several recipients answer at the same time.
+ */
+@Service
+public class FanOutCancellationService {
+
+	private static final Logger log = LoggerFactory.getLogger(FanOutCancellationService.class);
+	private static final Set<String> ACKNOWLEDGED_STATUSES = Set.of("answered", "completed");
+	private static final Set<String> RINGING_STATUSES = Set.of("created", "initiated", "ringing");
+	private static final Set<String> FINISHED_STATUSES = finishedStatuses();
+	private static final String CANCELED = "canceled";
+	private static final String CANCEL_REASON = "Canceled after another recipient acknowledged";
+	private static final int CANCEL_CONCURRENCY = 4;
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final CallConcurrencyLimiter callConcurrencyLimiter;
+	private final TwilioClient twilioClient;
+
+	public FanOutCancellationService(ReactiveMongoTemplate mongoTemplate,
+									 CallConcurrencyLimiter callConcurrencyLimiter,
+									 TwilioClient twilioClient) {
+		this.mongoTemplate = mongoTemplate;
+		this.callConcurrencyLimiter = callConcurrencyLimiter;
+		this.twilioClient = twilioClient;
+	}
+
+	public record CanceledCall(AgentCall previous, AgentCall canceled) {
+	}
+
+	/**
+	 * If the transition is the first acknowledgement in its fan-out, cancels the recipients that
+	 * have not finished yet and emits each of them.
+	 */
+	public Flux<CanceledCall> onTransition(AgentCall previous, AgentCall current) {
+		if (current.fanOutId() == null || !isAcknowledged(current.status()) || isAcknowledged(previous.status())) {
+			return Flux.empty();
+		}
+		Query unclaimed = Query.query(Criteria.where("_id").is(current.fanOutId())
+				.and("cancelOnAcknowledge").is(true)
+				.and("acknowledgedBy").is(null));
+		Update claim = new Update().set("acknowledgedBy", current.id()).set("acknowledgedAt", Instant.now());
+
+		return mongoTemplate.findAndModify(unclaimed, claim, CallFanOut.class)
+				.doOnNext(fanOut -> log.info("Fan-out {} acknowledged by {}, canceling the other recipients",
+						fanOut.id(), current.toNumber()))
+				.flatMapMany(fanOut -> mongoTemplate.find(Query.query(Criteria.where("fanOutId").is(fanOut.id())
+						.and("_id").ne(current.id())
+						.and("status").nin(FINISHED_STATUSES)), AgentCall.class))
+				.flatMap(this::cancel, CANCEL_CONCURRENCY)
+				.onErrorResume(error -> {
+					log.error("Failed to cancel the rest of fan-out {}: {}", current.fanOutId(), error.getMessage());
+					return Flux.empty();
+				});
+	}
+
+	/**
+	 * Whether another recipient of the fan-out has already acknowledged it with cancellation on.
+	 */
+	public Mono<Boolean> isAcknowledged(String fanOutId) {
+		return mongoTemplate.exists(Query.query(Criteria.where("_id").is(fanOutId)
+				.and("cancelOnAcknowledge").is(true)
+				.and("acknowledgedBy").ne(null)), CallFanOut.class);
+	}
+
+	/**
+	 * Records the call as canceled unless it has been answered or has finished in the meantime,
+	 * then ends it at Twilio, when it was already placed, and frees its slot. The status check and
+	 * the write are one conditional update, so a call that moved on concurrently is neither
+	 * overwritten nor hung up; nothing is emitted for it.
+	 */
+	public Mono<CanceledCall> cancel(AgentCall call) {
+		Instant now = Instant.now();
+		Query unfinished = Query.query(Criteria.where("_id").is(call.id())
+				.and("status").nin(FINISHED_STATUSES));
+		Update cancel = new Update()
+				.set("status", CANCELED)
+				.set("failureReason", CANCEL_REASON)
+				.set("lastUpdatedAt", now)
+				.set("statusTimestamps." + CANCELED, now);
+		return mongoTemplate.findAndModify(unfinished, cancel, AgentCall.class)
+				.flatMap(previous -> hangUp(previous)
+						.then(callConcurrencyLimiter.release(previous.id()))
+						.thenReturn(new CanceledCall(previous,
+								previous.withStatusUpdate(CANCELED, previous.rawResponse()).withFailure(CANCEL_REASON))));
+	}
+
+	private Mono<Void> hangUp(AgentCall call) {
+		if (call.callId() == null) {
+			return Mono.empty();
+		}
+		return twilioClient.endCall(call.callId(), !RINGING_STATUSES.contains(call.status()))
+				.onErrorResume(error -> {
+					log.warn("Failed to end call {} at Twilio: {}", call.callId(), error.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	private static Set<String> finishedStatuses() {
+		Set<String> finished = new HashSet<>(AgentCall.TERMINAL_STATUSES);
+		finished.addAll(ACKNOWLEDGED_STATUSES);
+		return Set.copyOf(finished);
+	}
+
+	private static boolean isAcknowledged(String status) {
+		return status != null && ACKNOWLEDGED_STATUSES.contains(status.toLowerCase());
+	}
+}
@@ -0,0 +1,230 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mycompany.ramesh.alertmind.config.IdempotencyProperties;
+import com.mycompany.ramesh.alertmind.entity.IdempotencyRecord;
+import com.mycompany.ramesh.alertmind.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Runs a create request at most once per idempotency key. The first request claims the key in
+ * {@code idempotency_keys} and stores its response once it succeeds; duplicates arriving while
+ * it runs wait for that response, on the same node through a shared future and on other nodes
+ * by polling the record, and later duplicates get the stored response back. Completed responses
+ * are also kept in an in-memory cache so repeated retries do not reach Mongo.
+ * <p>
+ * Only 2xx responses are stored. When the request fails the claim is released, so a retry runs
+ * it again.
+ * <p>
+ * A claim is a lease of {@code in-flight-lease}, renewed every third of that while the request
+ * runs, so a slow request keeps its key and only a node that stopped running it loses the key to
+ * a duplicate. Releasing and completing only touch the claim if it is still held for the same
+ * request, so a request that lost its key never overwrites the one that took it over.
+ */
+@Service
+public class IdempotencyService {
+
+	private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ObjectMapper objectMapper;
+	private final IdempotencyProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final AsyncCache<String, IdempotencyRecord> completed;
+
+	public IdempotencyService(ReactiveMongoTemplate mongoTemplate,
+							  ObjectMapper objectMapper,
+							  IdempotencyProperties properties,
+							  MeterRegistry meterRegistry) {
+		this.mongoTemplate = mongoTemplate;
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.completed = Caffeine.newBuilder()
+				.maximumSize(properties.cacheMaximumSize())
+				.expireAfter(Expiry.writing((String id, IdempotencyRecord record) -> record.expireAt() != null
+						? maxOf(Duration.between(Instant.now(), record.expireAt()), Duration.ZERO)
+						: Duration.ZERO))
+				.buildAsync();
+	}
+
+	/**
+	 * Runs {@code action} unless a request with the same key already ran or is running, in which
+	 * case its response is returned instead. The key is {@code explicitKey} when the client sent
+	 * one, otherwise {@code derivedKey}, which is kept for a shorter time. Reusing an explicit key
+	 * for a different request fails with {@link IdempotencyKeyMismatchException}; a derived key
+	 * only names the resource, so a retry whose body changed still gets the first response.
+	 */
+	public <T> Mono<ResponseEntity<T>> execute(String scope, String explicitKey, String derivedKey, Object request,
+											   Class<T> bodyType, Supplier<Mono<ResponseEntity<T>>> action) {
+		if (!properties.enabled()) {
+			return action.get();
+		}
+		boolean explicit = explicitKey != null && !explicitKey.isBlank();
+		String id = scope + ":" + (explicit ? explicitKey.strip() : derivedKey);
+		Duration ttl = explicit ? properties.keyTtl() : properties.derivedKeyTtl();
+		String requestHash = hash(request);
+
+		return Mono.fromFuture(() -> completed.get(id, (key, executor) ->
+								resolve(id, requestHash, explicit, ttl, action).toFuture()), true)
+				.flatMap(record -> {
+					if (explicit && !record.requestHash().equals(requestHash)) {
+						return Mono.error(new IdempotencyKeyMismatchException(explicitKey));
+					}
+					if (!record.isCompleted()) {
+						// Not stored, so the next retry runs the request again
+						completed.synchronous().invalidate(id);
+					}
+					return Mono.just(toResponse(record, bodyType));
+				});
+	}
+
+	/**
+	 * Claims the key and runs the action, or follows the request that holds the claim. An
+	 * expired record, completed or not, is taken over as if it did not exist. With
+	 * {@code checkHash}, a claim held for a different request is returned at once so the caller
+	 * can reject it instead of waiting for it.
+	 */
+	private <T> Mono<IdempotencyRecord> resolve(String id, String requestHash, boolean checkHash, Duration ttl,
+											   Supplier<Mono<ResponseEntity<T>>> action) {
+		return mongoTemplate.insert(IdempotencyRecord.claim(id, requestHash, Instant.now().plus(properties.inFlightLease())))
+				.flatMap(claim -> run(claim, ttl, action))
+				.onErrorResume(DuplicateKeyException.class, e -> mongoTemplate.findById(id, IdempotencyRecord.class)
+						.flatMap(existing -> {
+							if (existing.expireAt() != null && existing.expireAt().isBefore(Instant.now())) {
+								return takeOver(existing, requestHash)
+										.flatMap(claim -> run(claim, ttl, action))
+										.switchIfEmpty(Mono.defer(() -> resolve(id, requestHash, checkHash, ttl, action)));
+							}
+							if (existing.isCompleted() || (checkHash && !existing.requestHash().equals(requestHash))) {
+								count("replayed");
+								return Mono.just(existing);
+							}
+							count("waited");
+							return Mono.delay(properties.pollInterval())
+									.then(Mono.defer(() -> resolve(id, requestHash, checkHash, ttl, action)));
+						})
+						// Released by a failed request in the meantime
+						.switchIfEmpty(Mono.defer(() -> resolve(id, requestHash, checkHash, ttl, action))));
+	}
+
+	private Mono<IdempotencyRecord> takeOver(IdempotencyRecord expired, String requestHash) {
+		Instant now = Instant.now();
+		Query stillExpired = Query.query(Criteria.where("_id").is(expired.id()).and("expireAt").lt(now));
+		Update claim = new Update()
+				.set("requestHash", requestHash)
+				.set("state", IdempotencyRecord.IN_PROGRESS)
+				.unset("statusCode")
+				.unset("responseBody")
+				.unset("completedAt")
+				.set("createdAt", now)
+				.set("expireAt", now.plus(properties.inFlightLease()));
+		return mongoTemplate.findAndModify(stillExpired, claim, FindAndModifyOptions.options().returnNew(true),
+				IdempotencyRecord.class);
+	}
+
+	private <T> Mono<IdempotencyRecord> run(IdempotencyRecord claim, Duration ttl,
+										   Supplier<Mono<ResponseEntity<T>>> action) {
+		count("executed");
+		Query ownClaim = Query.query(Criteria.where("_id").is(claim.id())
+				.and("state").is(IdempotencyRecord.IN_PROGRESS)
+				.and("requestHash").is(claim.requestHash()));
+		// The renewal never emits, so the action decides the outcome and cancels it when done
+		return Mono.firstWithSignal(Mono.defer(action), this.<ResponseEntity<T>>renewLease(ownClaim))
+				.flatMap(response -> {
+					JsonNode body = response.getBody() != null ? objectMapper.valueToTree(response.getBody()) : null;
+					Instant now = Instant.now();
+					if (!response.getStatusCode().is2xxSuccessful()) {
+						IdempotencyRecord unstored = new IdempotencyRecord(claim.id(), claim.requestHash(),
+								IdempotencyRecord.IN_PROGRESS, response.getStatusCode().value(), body, claim.createdAt(), now, null);
+						return mongoTemplate.remove(ownClaim, IdempotencyRecord.class).thenReturn(unstored);
+					}
+					IdempotencyRecord stored = new IdempotencyRecord(claim.id(), claim.requestHash(),
+							IdempotencyRecord.COMPLETED, response.getStatusCode().value(), body, claim.createdAt(), now,
+							now.plus(ttl));
+					Update complete = new Update()
+							.set("state", stored.state())
+							.set("statusCode", stored.statusCode())
+							.set("responseBody", stored.responseBody())
+							.set("completedAt", stored.completedAt())
+							.set("expireAt", stored.expireAt());
+					return mongoTemplate.findAndModify(ownClaim, complete, FindAndModifyOptions.options().returnNew(true),
+									IdempotencyRecord.class)
+							.switchIfEmpty(Mono.fromSupplier(() -> {
+								log.warn("Request with idempotency key {} lost its claim before completing, "
+										+ "its response is not stored", claim.id());
+								return stored;
+							}));
+				})
+				.onErrorResume(error -> {
+					log.warn("Request with idempotency key {} failed, releasing the key: {}", claim.id(), error.getMessage());
+					return mongoTemplate.remove(ownClaim, IdempotencyRecord.class).then(Mono.error(error));
+				});
+	}
+
+	/**
+	 * Extends the lease of a running request's claim every third of {@code in-flight-lease}.
+	 * Never emits; a failed renewal is logged and retried on the next tick.
+	 */
+	private <R> Mono<R> renewLease(Query ownClaim) {
+		return Flux.interval(properties.inFlightLease().dividedBy(3))
+				.concatMap(tick -> mongoTemplate.updateFirst(ownClaim,
+								new Update().set("expireAt", Instant.now().plus(properties.inFlightLease())),
+								IdempotencyRecord.class)
+						.onErrorResume(error -> {
+							log.warn("Failed to renew idempotency claim: {}", error.getMessage());
+							return Mono.empty();
+						}))
+				.then(Mono.never());
+	}
+
+	private <T> ResponseEntity<T> toResponse(IdempotencyRecord record, Class<T> bodyType) {
+		try {
+			T body = record.responseBody() != null ? objectMapper.treeToValue(record.responseBody(), bodyType) : null;
+			return ResponseEntity.status(record.statusCode()).body(body);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Stored response for " + record.id() + " cannot be read", e);
+		}
+	}
+
+	private String hash(Object request) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(request);
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+		} catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Cannot hash request for idempotency", e);
+		}
+	}
+
+	private static Duration maxOf(Duration a, Duration b) {
+		return a.compareTo(b) >= 0 ? a : b;
+	}
+
+	private void count(String outcome) {
+		meterRegistry.counter("alertmind.idempotency.requests", "outcome", outcome).increment();
+	}
+}
@@ -0,0 +1,51 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.entity.MigrationMarker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Runs one-off data migrations once per database rather than on every start of every instance.
+ * A migration that completes leaves a {@link MigrationMarker}; any later start finds it and
+ * skips the migration. Migrations must still be idempotent: instances starting together before
+ * the marker exists may each run one, and a failed run is retried on the next start.
+ */
+@Service
+public class MigrationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(MigrationRunner.class);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	public MigrationRunner(ReactiveMongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/**
+	 * Runs {@code migration}, which emits the number of documents it changed, unless a marker
+	 * for {@code name} exists, and records the marker once it completes.
+	 */
+	public Mono<Void> runOnce(String name, Mono<Long> migration) {
+		return mongoTemplate.exists(Query.query(Criteria.where("_id").is(name)), MigrationMarker.class)
+				.flatMap(done -> {
+					if (done) {
+						log.debug("Migration {} already completed", name);
+						return Mono.empty();
+					}
+					return migration
+							.defaultIfEmpty(0L)
+							.flatMap(migrated -> {
+								log.info("Migration {} completed, {} documents migrated", name, migrated);
+								return mongoTemplate.save(new MigrationMarker(name, migrated, Instant.now()));
+							});
+				})
+				.then();
+	}
+}
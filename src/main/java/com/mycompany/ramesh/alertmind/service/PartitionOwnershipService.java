@@ -0,0 +1,222 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.config.ClusterProperties;
+import com.mycompany.ramesh.alertmind.entity.ClusterNode;
+import com.mycompany.ramesh.alertmind.entity.PartitionLease;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Splits background work across the live AlertMind instances. Work keys (call ids, incident
+ * numbers) hash into a fixed number of partitions and every partition is leased to exactly one
+ * node. Each heartbeat renews this node's leases and rebalances towards an even share of the
+ * partitions among the nodes that are currently heartbeating.
+ * <p>
+ * Jobs that work per key split their work by only processing the keys for which
+ * {@link #owns(String)} is true. Jobs that make one pass over a whole collection cannot be split
+ * that way and use {@link #isLeader(String)} instead, which elects a single node per job.
+ */
+@Service
+public class PartitionOwnershipService {
+
+	private static final Logger log = LoggerFactory.getLogger(PartitionOwnershipService.class);
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final ClusterProperties properties;
+	private final String nodeId;
+	private final Instant startedAt = Instant.now();
+
+	private volatile Set<Integer> ownedPartitions = Set.of();
+	private volatile Instant ownedUntil = Instant.EPOCH;
+	private volatile boolean partitionsSeeded;
+
+	public PartitionOwnershipService(ReactiveMongoTemplate mongoTemplate, ClusterProperties properties) {
+		this.mongoTemplate = mongoTemplate;
+		this.properties = properties;
+		this.nodeId = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+	}
+
+	public String nodeId() {
+		return nodeId;
+	}
+
+	public int partitionOf(String key) {
+		return Math.floorMod(key.hashCode(), properties.partitions());
+	}
+
+	public boolean owns(String key) {
+		return key != null && ownsPartition(partitionOf(key));
+	}
+
+	/**
+	 * Leader election for a whole-collection job: true on the one node that owns the partition
+	 * of the job name. The job runs on that node alone and moves with the partition.
+	 */
+	public boolean isLeader(String job) {
+		return owns(job);
+	}
+
+	/**
+	 * Ownership is only trusted while the last renewed lease is valid, so a node that lost
+	 * contact with Mongo stops processing before another node can take its partitions over.
+	 */
+	public boolean ownsPartition(int partition) {
+		return Instant.now().isBefore(ownedUntil) && ownedPartitions.contains(partition);
+	}
+
+	public Set<Integer> ownedPartitions() {
+		return Instant.now().isBefore(ownedUntil) ? ownedPartitions : Set.of();
+	}
+
+	@Scheduled(fixedDelayString = "${app.cluster.heartbeat-interval}")
+	public Mono<Void> heartbeat() {
+		Instant now = Instant.now();
+		Instant leaseExpiry = now.plus(properties.leaseDuration());
+
+		return seedPartitions()
+				.then(registerNode(now))
+				.then(countLiveNodes(now))
+				.flatMap(liveNodes -> rebalance(now, leaseExpiry, targetShare(liveNodes)))
+				.doOnNext(owned -> {
+					Set<Integer> previous = ownedPartitions;
+					ownedPartitions = Set.copyOf(owned);
+					ownedUntil = leaseExpiry;
+					if (!previous.equals(ownedPartitions)) {
+						log.info("Node {} now owns {} of {} partitions", nodeId, owned.size(), properties.partitions());
+					}
+				})
+				.onErrorResume(error -> {
+					log.error("Partition heartbeat failed for node {}: {}", nodeId, error.getMessage());
+					return Mono.empty();
+				})
+				.then();
+	}
+
+	@PreDestroy
+	public void releaseAll() {
+		ownedPartitions = Set.of();
+		ownedUntil = Instant.EPOCH;
+		mongoTemplate.updateMulti(
+						Query.query(Criteria.where("owner").is(nodeId)),
+						new Update().unset("owner").set("expiresAt", Instant.EPOCH),
+						PartitionLease.class)
+				.then(mongoTemplate.remove(Query.query(Criteria.where("_id").is(nodeId)), ClusterNode.class))
+				.doOnSuccess(result -> log.info("Node {} released its partitions", nodeId))
+				.onErrorResume(error -> {
+					log.warn("Node {} could not release its partitions, leases will expire: {}", nodeId, error.getMessage());
+					return Mono.empty();
+				})
+				.block(Duration.ofSeconds(5));
+	}
+
+	private Mono<Void> seedPartitions() {
+		if (partitionsSeeded) {
+			return Mono.empty();
+		}
+		return Flux.range(0, properties.partitions())
+				.flatMap(partition -> mongoTemplate.upsert(
+								Query.query(Criteria.where("_id").is(partition)),
+								new Update().setOnInsert("expiresAt", Instant.EPOCH),
+								PartitionLease.class)
+						.onErrorResume(DuplicateKeyException.class, e -> Mono.empty()))
+				.then()
+				.doOnSuccess(v -> partitionsSeeded = true);
+	}
+
+	private Mono<Void> registerNode(Instant now) {
+		return mongoTemplate.upsert(
+						Query.query(Criteria.where("_id").is(nodeId)),
+						new Update().setOnInsert("startedAt", startedAt).set("lastHeartbeat", now),
+						ClusterNode.class)
+				// Forget nodes that stopped heartbeating long ago
+				.then(mongoTemplate.remove(
+						Query.query(Criteria.where("lastHeartbeat").lt(now.minus(properties.leaseDuration().multipliedBy(10)))),
+						ClusterNode.class))
+				.then();
+	}
+
+	private Mono<Long> countLiveNodes(Instant now) {
+		return mongoTemplate.count(
+						Query.query(Criteria.where("lastHeartbeat").gte(now.minus(properties.leaseDuration()))),
+						ClusterNode.class)
+				.map(count -> Math.max(1L, count));
+	}
+
+	private int targetShare(long liveNodes) {
+		return (int) ((properties.partitions() + liveNodes - 1) / liveNodes);
+	}
+
+	private Mono<List<Integer>> rebalance(Instant now, Instant leaseExpiry, int target) {
+		return mongoTemplate.updateMulti(
+						Query.query(Criteria.where("owner").is(nodeId)),
+						new Update().set("expiresAt", leaseExpiry),
+						PartitionLease.class)
+				.thenMany(mongoTemplate.find(Query.query(Criteria.where("owner").is(nodeId))
+						.with(Sort.by("_id")), PartitionLease.class))
+				.map(PartitionLease::partition)
+				.collectList()
+				.flatMap(owned -> {
+					if (owned.size() > target) {
+						List<Integer> kept = owned.subList(0, target);
+						List<Integer> excess = owned.subList(target, owned.size());
+						// Stop working on the excess before another node can claim it
+						ownedPartitions = Set.copyOf(kept);
+						return mongoTemplate.updateMulti(
+										Query.query(Criteria.where("_id").in(excess).and("owner").is(nodeId)),
+										new Update().unset("owner").set("expiresAt", Instant.EPOCH),
+										PartitionLease.class)
+								.doOnSuccess(result -> log.info("Node {} handed over partitions {}", nodeId, excess))
+								.thenReturn(List.copyOf(kept));
+					}
+					return Flux.range(0, target - owned.size())
+							.concatMap(i -> claimPartition(now, leaseExpiry))
+							.map(PartitionLease::partition)
+							.collectList()
+							.map(claimed -> {
+								List<Integer> all = new ArrayList<>(owned);
+								all.addAll(claimed);
+								return all;
+							});
+				});
+	}
+
+	private Mono<PartitionLease> claimPartition(Instant now, Instant leaseExpiry) {
+		Query query = Query.query(new Criteria().orOperator(
+				Criteria.where("owner").is(null),
+				Criteria.where("expiresAt").lt(now)));
+		query.addCriteria(Criteria.where("_id").lt(properties.partitions()));
+		return mongoTemplate.findAndModify(query,
+				new Update().set("owner", nodeId).set("expiresAt", leaseExpiry),
+				FindAndModifyOptions.options().returnNew(true),
+				PartitionLease.class);
+	}
+
+	private static String resolveHostName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			return "node";
+		}
+	}
+}
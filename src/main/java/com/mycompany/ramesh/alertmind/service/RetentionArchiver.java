@@ -0,0 +1,273 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.config.RetentionProperties;
+import com.mycompany.ramesh.alertmind.config.RetentionProperties.CollectionRetention;
+import com.mycompany.ramesh.alertmind.entity.TranscriptTurn;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Applies the configured retention to {@code agent_calls} and {@code agent_call_payloads}.
+ * Expired documents are streamed from a cursor into gzip-compressed, date-partitioned NDJSON
+ * files; only once a batch is durably on disk is it removed. Calls get an {@code expireAt}, after
+ * which the TTL index on that field removes them. Payloads are exported with their GridFS
+ * content and deleted through {@link CallPayloadStore}, which removes the GridFS files too. A
+ * document is therefore never deleted without having been archived.
+ * <p>
+ * Agents are not expired here: deleting the local record alone would leave the ElevenLabs agent
+ * behind. {@link AgentReaper} deletes both.
+ */
+@Service
+public class RetentionArchiver {
+
+	private static final Logger log = LoggerFactory.getLogger(RetentionArchiver.class);
+	private static final String JOB_KEY = "retention-archiver";
+	private static final String EXPIRE_AT = "expireAt";
+	private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder()
+			.outputMode(JsonMode.RELAXED)
+			.build();
+	private static final DateTimeFormatter RUN_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+			.withZone(ZoneOffset.UTC);
+
+	private static final String PAYLOADS = "agent_call_payloads";
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final CallPayloadStore callPayloadStore;
+	private final RetentionProperties properties;
+	private final PartitionOwnershipService partitionOwnershipService;
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	public RetentionArchiver(ReactiveMongoTemplate mongoTemplate,
+							 CallPayloadStore callPayloadStore,
+							 RetentionProperties properties,
+							 PartitionOwnershipService partitionOwnershipService) {
+		this.mongoTemplate = mongoTemplate;
+		this.callPayloadStore = callPayloadStore;
+		this.properties = properties;
+		this.partitionOwnershipService = partitionOwnershipService;
+	}
+
+	@Scheduled(fixedDelayString = "${app.retention.sweep-interval}", initialDelayString = "${app.retention.sweep-interval}")
+	public Mono<Void> sweep() {
+		if (!properties.enabled() || !partitionOwnershipService.isLeader(JOB_KEY) || !running.compareAndSet(false, true)) {
+			return Mono.empty();
+		}
+		Instant now = Instant.now();
+		List<ArchiveTarget> targets = List.of(
+				new ArchiveTarget("agent_calls", "createdAt", "status", properties.agentCalls(), true),
+				new ArchiveTarget(PAYLOADS, "storedAt", null, properties.callPayloads(), false));
+
+		return Flux.fromIterable(targets)
+				.concatMap(target -> archive(target, now))
+				.onErrorResume(error -> {
+					log.error("Retention sweep failed: {}", error.getMessage(), error);
+					return Mono.empty();
+				})
+				.doFinally(signal -> running.set(false))
+				.then();
+	}
+
+	private Mono<Long> archive(ArchiveTarget target, Instant now) {
+		return Flux.fromIterable(target.expiredCriteria(now))
+				.concatMap(criteria -> archiveMatching(target, criteria, now))
+				.reduce(0L, Long::sum)
+				.doOnNext(count -> {
+					if (count > 0) {
+						log.info("Archived {} documents from {}", count, target.collection());
+					}
+				});
+	}
+
+	private Mono<Long> archiveMatching(ArchiveTarget target, Criteria criteria, Instant now) {
+		Query query = Query.query(criteria).with(Sort.by(target.dateField()));
+		query.cursorBatchSize(properties.batchSize());
+		Date expireAt = Date.from(now.plus(properties.deleteGrace()));
+
+		return Flux.using(
+						() -> new ArchiveWriter(properties.archiveDirectory(), target, now,
+								partitionOwnershipService.nodeId()),
+						writer -> mongoTemplate.find(query, Document.class, target.collection())
+								.concatMap(this::withGridFsContent)
+								.buffer(properties.batchSize())
+								.concatMap(batch -> Mono.fromCallable(() -> writer.write(batch))
+										.subscribeOn(Schedulers.boundedElastic())
+										.flatMap(ids -> remove(target, ids, expireAt))
+										.thenReturn((long) batch.size())),
+						ArchiveWriter::close)
+				.reduce(0L, Long::sum);
+	}
+
+	/**
+	 * Payloads above the GridFS threshold only hold a file reference; the compressed content is
+	 * put into {@code data} so the archived line is complete on its own.
+	 */
+	private Mono<Document> withGridFsContent(Document document) {
+		String gridFsFileId = document.getString("gridFsFileId");
+		if (gridFsFileId == null) {
+			return Mono.just(document);
+		}
+		String payloadId = String.valueOf(document.get("_id"));
+		return callPayloadStore.loadGridFsContent(payloadId)
+				.map(content -> {
+					document.put("data", new Binary(content));
+					return document;
+				})
+				.switchIfEmpty(Mono.fromSupplier(() -> {
+					log.warn("GridFS file of payload {} is missing, archiving its metadata only", payloadId);
+					return document;
+				}));
+	}
+
+	private Mono<Void> remove(ArchiveTarget target, List<Object> ids, Date expireAt) {
+		if (!target.ttlExpiry()) {
+			return callPayloadStore.deleteAll(ids.stream().map(String::valueOf).toList());
+		}
+		// The transcript turns indexed for search expire with their calls
+		Query turns = Query.query(Criteria.where("callRecordId").in(ids.stream().map(String::valueOf).toList()));
+		return mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+						new Update().set(EXPIRE_AT, expireAt), target.collection())
+				.then(mongoTemplate.updateMulti(turns, new Update().set(EXPIRE_AT, expireAt), TranscriptTurn.class))
+				.then();
+	}
+
+	private record ArchiveTarget(
+			String collection,
+			String dateField,
+			String statusField,
+			CollectionRetention retention,
+			boolean ttlExpiry
+	) {
+		/**
+		 * One criteria per status override plus one for every other status, each matching the
+		 * documents past their retention that have not been archived yet. Documents deleted right
+		 * after archiving are gone once archived, so only TTL-expired ones need the marker check.
+		 */
+		List<Criteria> expiredCriteria(Instant now) {
+			List<Criteria> criteria = new ArrayList<>();
+			Map<String, Duration> byStatus = statusField != null ? retention.byStatus() : Map.of();
+			byStatus.forEach((status, statusRetention) -> criteria.add(notArchived(Criteria.where(statusField).is(status)
+					.and(dateField).lt(now.minus(statusRetention)))));
+
+			Criteria remaining = notArchived(Criteria.where(dateField).lt(now.minus(retention.retention())));
+			if (!byStatus.isEmpty()) {
+				remaining.and(statusField).nin(byStatus.keySet());
+			}
+			criteria.add(remaining);
+			return criteria;
+		}
+
+		private Criteria notArchived(Criteria criteria) {
+			return ttlExpiry ? criteria.and(EXPIRE_AT).exists(false) : criteria;
+		}
+	}
+
+	/**
+	 * Writes documents sorted by their date field into one file per UTC day, switching files as
+	 * the day changes. Each batch is flushed and forced to disk before it is acknowledged.
+	 */
+	private static final class ArchiveWriter {
+
+		private final Path root;
+		private final ArchiveTarget target;
+		private final String fileSuffix;
+		private LocalDate currentDay;
+		private FileChannel channel;
+		private GZIPOutputStream gzip;
+		private Writer writer;
+
+		ArchiveWriter(Path archiveDirectory, ArchiveTarget target, Instant runAt, String nodeId) {
+			this.root = archiveDirectory.resolve(target.collection());
+			this.target = target;
+			this.fileSuffix = RUN_FORMAT.format(runAt) + "-" + nodeId + ".ndjson.gz";
+		}
+
+		List<Object> write(List<Document> batch) {
+			try {
+				List<Object> ids = new ArrayList<>(batch.size());
+				for (Document document : batch) {
+					Date date = document.getDate(target.dateField());
+					LocalDate day = date != null ? date.toInstant().atOffset(ZoneOffset.UTC).toLocalDate() : LocalDate.EPOCH;
+					if (!day.equals(currentDay)) {
+						open(day);
+					}
+					writer.write(document.toJson(JSON_SETTINGS));
+					writer.write('\n');
+					ids.add(document.get("_id"));
+				}
+				writer.flush();
+				gzip.flush();
+				channel.force(false);
+				return ids;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private void open(LocalDate day) throws IOException {
+			close();
+			Path directory = root.resolve(String.format("%04d/%02d/%02d",
+					day.getYear(), day.getMonthValue(), day.getDayOfMonth()));
+			Files.createDirectories(directory);
+			Path file = directory.resolve(target.collection() + "-" + day + "-" + fileSuffix);
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+			gzip = new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024, true);
+			writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+			currentDay = day;
+			log.info("Archiving {} documents of {} to {}", target.collection(), day, file);
+		}
+
+		void close() {
+			if (writer == null) {
+				return;
+			}
+			try {
+				writer.close();
+			} catch (IOException e) {
+				log.warn("Failed to close archive file for {}: {}", target.collection(), e.getMessage());
+			} finally {
+				writer = null;
+				gzip = null;
+				channel = null;
+				currentDay = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,260 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mongodb.client.result.UpdateResult;
+import com.mycompany.ramesh.alertmind.dto.PageCursor;
+import com.mycompany.ramesh.alertmind.dto.TranscriptSearchPage;
+import com.mycompany.ramesh.alertmind.dto.TranscriptSearchResult;
+import com.mycompany.ramesh.alertmind.dto.TranscriptSearchResult.Highlight;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import com.mycompany.ramesh.alertmind.entity.TranscriptTurn;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Full-text search over call transcripts. When a transcript is stored its turns are written to
+ * {@code call_transcript_turns}, whose text index on {@code message} answers searches without
+ * reading the transcripts themselves. Results are turns, newest call first, paged with the same
+ * keyset cursor as the other listings.
+ * <p>
+ * The text index is compound, {@code (month, message)}, so a text query has to name one month.
+ * A search queries the months it covers one at a time, newest first, and stops as soon as the
+ * page is full; each query only reads the index entries of its own month.
+ */
+@Service
+public class TranscriptSearchService {
+
+	private static final Logger log = LoggerFactory.getLogger(TranscriptSearchService.class);
+	private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "callCreatedAt", "_id");
+	private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+	private static final Pattern NEGATED_TERM = Pattern.compile("(?<![\\p{L}\\p{N}])-[\\p{L}\\p{N}]+");
+	private static final String COLLECTION = "call_transcript_turns";
+	private static final String TEXT_INDEX = "month_message_text";
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final MigrationRunner migrationRunner;
+
+	public TranscriptSearchService(ReactiveMongoTemplate mongoTemplate, MigrationRunner migrationRunner) {
+		this.mongoTemplate = mongoTemplate;
+		this.migrationRunner = migrationRunner;
+	}
+
+	/**
+	 * Creates the {@code (month, message)} text index. A collection holds a single text index,
+	 * so turns indexed before the month existed get their month once and the plain text index
+	 * on {@code message} is dropped before the new one is created.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void ensureTextIndex() {
+		ReactiveIndexOperations indexOps = mongoTemplate.indexOps(TranscriptTurn.class);
+		Query legacy = Query.query(Criteria.where("month").exists(false));
+		AggregationUpdate update = AggregationUpdate.update()
+				.set("month").toValue(DateOperators.dateOf("callCreatedAt").toString("%Y-%m"));
+		Mono<Long> migration = mongoTemplate.updateMulti(legacy, update, TranscriptTurn.class)
+				.map(UpdateResult::getModifiedCount)
+				.flatMap(migrated -> indexOps.getIndexInfo()
+						.filter(index -> !TEXT_INDEX.equals(index.getName())
+								&& index.getIndexFields().stream().anyMatch(IndexField::isText))
+						.concatMap(index -> indexOps.dropIndex(index.getName()))
+						.then(Mono.just(migrated)));
+
+		migrationRunner.runOnce("call_transcript_turns.month", migration)
+				.then(indexOps.ensureIndex(new CompoundIndexDefinition(
+						new Document("month", 1).append("message", "text")).named(TEXT_INDEX)))
+				.subscribe(null, error -> log.error("Failed to create the transcript text index: {}", error.getMessage()));
+	}
+
+	/**
+	 * Writes the turns of an ElevenLabs transcript, replacing any turns indexed for the call
+	 * before. Failures are logged and swallowed; the transcript itself is already stored.
+	 */
+	public Mono<Void> index(AgentCall call, JsonNode transcript) {
+		JsonNode turns = transcript != null ? transcript.path("transcript") : null;
+		if (turns == null || !turns.isArray()) {
+			return Mono.empty();
+		}
+
+		ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TranscriptTurn.class);
+		int count = 0;
+		for (JsonNode node : turns) {
+			String message = node.path("message").asText("");
+			if (!message.isBlank()) {
+				TranscriptTurn turn = new TranscriptTurn(call.id() + ":" + count, call.id(), call.callId(),
+						call.incidentNumber(), call.toNumber(), count, node.path("role").asText(null), message,
+						node.hasNonNull("time_in_call_secs") ? node.get("time_in_call_secs").asInt() : null,
+						call.createdAt(), monthOf(call.createdAt()).toString(), call.expireAt());
+				bulk.replaceOne(Query.query(Criteria.where("_id").is(turn.id())), turn,
+						FindAndReplaceOptions.options().upsert());
+				count++;
+			}
+		}
+
+		Query stale = Query.query(Criteria.where("callRecordId").is(call.id()).and("turn").gte(count));
+		Mono<Void> write = count > 0 ? bulk.execute().then() : Mono.empty();
+		int indexed = count;
+		return write
+				.then(mongoTemplate.remove(stale, TranscriptTurn.class))
+				.doOnSuccess(result -> log.info("Indexed {} transcript turns for call {}", indexed, call.callId()))
+				.doOnError(error -> log.warn("Failed to index transcript of call {}: {}", call.callId(), error.getMessage()))
+				.onErrorResume(error -> Mono.empty())
+				.then();
+	}
+
+	/**
+	 * Turns matching {@code text}, which uses the Mongo text search syntax: words, "quoted
+	 * phrases" and -negated words. Null filters match every turn.
+	 * <p>
+	 * Without {@code from} and {@code to} the search covers every month that has turns, from the
+	 * newest down, so a page is found without a date range as long as it has enough matches in
+	 * recent months. A text query sorts its matches in memory, which the month prefix bounds to
+	 * the matches of a single month.
+	 */
+	public Mono<TranscriptSearchPage> search(String text, String incidentNumber, String role,
+											 Instant from, Instant to, String cursor, int limit) {
+		PageCursor after = cursor != null ? PageCursor.decode(cursor) : null;
+		List<String> terms = searchTerms(text);
+		return Mono.zip(storedMonth(Sort.Direction.DESC), storedMonth(Sort.Direction.ASC))
+				.flatMapMany(stored -> Flux.fromIterable(monthsNewestFirst(
+						latest(stored.getT1(), to, after), earliest(stored.getT2(), from))))
+				.concatMap(month -> mongoTemplate.find(
+						monthQuery(month, text, incidentNumber, role, from, to, after, limit), TranscriptTurn.class))
+				.take(limit + 1)
+				.map(turn -> TranscriptSearchResult.from(turn, highlight(turn.message(), terms)))
+				.collectList()
+				.map(results -> {
+					if (results.size() <= limit) {
+						return new TranscriptSearchPage(results, null);
+					}
+					List<TranscriptSearchResult> items = results.subList(0, limit);
+					TranscriptSearchResult last = items.get(limit - 1);
+					return new TranscriptSearchPage(List.copyOf(items),
+							new PageCursor(last.callCreatedAt(), last.id()).encode());
+				});
+	}
+
+	private static Query monthQuery(YearMonth month, String text, String incidentNumber, String role,
+									Instant from, Instant to, PageCursor after, int limit) {
+		Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+				.addCriteria(Criteria.where("month").is(month.toString()));
+		if (incidentNumber != null) {
+			query.addCriteria(Criteria.where("incidentNumber").is(incidentNumber));
+		}
+		if (role != null) {
+			query.addCriteria(Criteria.where("role").is(role));
+		}
+		List<Criteria> createdAt = new ArrayList<>();
+		if (from != null) {
+			createdAt.add(Criteria.where("callCreatedAt").gte(from));
+		}
+		if (to != null) {
+			createdAt.add(Criteria.where("callCreatedAt").lt(to));
+		}
+		if (after != null) {
+			createdAt.add(new Criteria().orOperator(
+					Criteria.where("callCreatedAt").lt(after.createdAt()),
+					Criteria.where("callCreatedAt").is(after.createdAt()).and("_id").lt(after.id())));
+		}
+		if (!createdAt.isEmpty()) {
+			query.addCriteria(new Criteria().andOperator(createdAt));
+		}
+		return query.with(NEWEST_FIRST).limit(limit + 1);
+	}
+
+	/**
+	 * The newest or oldest month that has turns, read from the end of the month index.
+	 */
+	private Mono<YearMonth> storedMonth(Sort.Direction direction) {
+		Query query = Query.query(Criteria.where("month").ne(null))
+				.with(Sort.by(direction, "month"))
+				.limit(1);
+		query.fields().include("month");
+		return mongoTemplate.findOne(query, Document.class, COLLECTION)
+				.map(turn -> YearMonth.parse(turn.getString("month")));
+	}
+
+	private static YearMonth latest(YearMonth stored, Instant to, PageCursor after) {
+		YearMonth latest = stored;
+		if (to != null && monthOf(to).isBefore(latest)) {
+			latest = monthOf(to);
+		}
+		if (after != null && monthOf(after.createdAt()).isBefore(latest)) {
+			latest = monthOf(after.createdAt());
+		}
+		return latest;
+	}
+
+	private static YearMonth earliest(YearMonth stored, Instant from) {
+		return from != null && monthOf(from).isAfter(stored) ? monthOf(from) : stored;
+	}
+
+	private static List<YearMonth> monthsNewestFirst(YearMonth newest, YearMonth oldest) {
+		List<YearMonth> months = new ArrayList<>();
+		for (YearMonth month = newest; !month.isBefore(oldest); month = month.minusMonths(1)) {
+			months.add(month);
+		}
+		return months;
+	}
+
+	private static YearMonth monthOf(Instant instant) {
+		return YearMonth.from(instant.atZone(ZoneOffset.UTC));
+	}
+
+	private static List<String> searchTerms(String text) {
+		List<String> terms = new ArrayList<>();
+		Matcher words = WORD.matcher(NEGATED_TERM.matcher(text).replaceAll(" "));
+		while (words.find()) {
+			terms.add(words.group().toLowerCase(Locale.ROOT));
+		}
+		return terms;
+	}
+
+	/**
+	 * Ranges of the words in {@code message} that match a search term. The text index stems
+	 * words, so a word matches when it starts with the term minus its last two letters, which
+	 * covers the usual inflections ("acknowledge", "acknowledged", "acknowledging").
+	 */
+	private static List<Highlight> highlight(String message, List<String> terms) {
+		List<Highlight> highlights = new ArrayList<>();
+		Matcher words = WORD.matcher(message);
+		while (words.find()) {
+			String word = words.group().toLowerCase(Locale.ROOT);
+			for (String term : terms) {
+				String stem = term.length() > 5 ? term.substring(0, term.length() - 2) : term;
+				if (word.startsWith(stem)) {
+					highlights.add(new Highlight(words.start(), words.end()));
+					break;
+				}
+			}
+		}
+		return highlights;
+	}
+}
@@ -0,0 +1,151 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mycompany.ramesh.alertmind.config.TwilioProperties;
+import com.mycompany.ramesh.alertmind.dto.CreateOutboundCallRequest;
+import com.mycompany.ramesh.alertmind.exception.UpstreamServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.HtmlUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Calls the Twilio REST API directly, for the operations ElevenLabs does not expose, such as
+ * ending a call it placed through Twilio, and as a second dialer when ElevenLabs is degraded.
+ * Calls dialed here read the incident out with text-to-speech instead of connecting the agent.
+ */
+@Service
+public class TwilioClient implements CallDialer {
+
+	public static final String PROVIDER = "twilio";
+
+	private static final Logger log = LoggerFactory.getLogger(TwilioClient.class);
+	private static final List<String> STATUS_CALLBACK_EVENTS = List.of("initiated", "ringing", "answered", "completed");
+
+	private final WebClient webClient;
+	private final TwilioProperties properties;
+
+	public TwilioClient(WebClient twilioWebClient, TwilioProperties properties) {
+		this.webClient = twilioWebClient;
+		this.properties = properties;
+	}
+
+	@Override
+	public String provider() {
+		return PROVIDER;
+	}
+
+	@Override
+	public Mono<DialedCall> dial(CreateOutboundCallRequest request) {
+		MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+		form.add("To", request.toNumber());
+		form.add("From", properties.fromNumber());
+		form.add("Twiml", alertTwiml(request));
+		if (properties.statusCallbackUrl() != null && !properties.statusCallbackUrl().isBlank()) {
+			form.add("StatusCallback", properties.statusCallbackUrl());
+			STATUS_CALLBACK_EVENTS.forEach(event -> form.add("StatusCallbackEvent", event));
+		}
+		log.info("Creating Twilio outbound call to: {}", request.toNumber());
+
+		return webClient.post()
+				.uri("/2010-04-01/Accounts/{accountSid}/Calls.json", properties.accountSid())
+				.body(BodyInserters.fromFormData(form))
+				.retrieve()
+				.onStatus(HttpStatusCode::isError, response ->
+					response.bodyToMono(String.class)
+						.defaultIfEmpty("")
+						.flatMap(errorBody -> {
+							log.error("Twilio call API error - Status: {}, Body: {}",
+									response.statusCode(), errorBody);
+							return Mono.error(new UpstreamServiceException(
+									response.statusCode(), errorBody));
+						}))
+				.bodyToMono(JsonNode.class)
+				.doOnSuccess(response -> log.info("Successfully created Twilio call: {}", response.path("sid").asText(null)))
+				.map(response -> new DialedCall(PROVIDER, response.path("sid").asText(null), null,
+						properties.fromNumber(), extractCallStatus(response), response));
+	}
+
+	public Mono<JsonNode> getCall(String callSid) {
+		return webClient.get()
+				.uri("/2010-04-01/Accounts/{accountSid}/Calls/{callSid}.json", properties.accountSid(), callSid)
+				.retrieve()
+				.onStatus(HttpStatusCode::isError, response ->
+					response.bodyToMono(String.class)
+						.defaultIfEmpty("")
+						.flatMap(errorBody -> {
+							log.error("Twilio API error fetching call {} - Status: {}, Body: {}",
+									callSid, response.statusCode(), errorBody);
+							return Mono.error(new UpstreamServiceException(
+									response.statusCode(), errorBody));
+						}))
+				.bodyToMono(JsonNode.class);
+	}
+
+	/**
+	 * Ends a call. A call that is still queued or ringing is canceled; one already in progress
+	 * is hung up.
+	 */
+	public Mono<Void> endCall(String callSid, boolean inProgress) {
+		String status = inProgress ? "completed" : "canceled";
+		log.info("Ending Twilio call {} with status {}", callSid, status);
+		return webClient.post()
+				.uri("/2010-04-01/Accounts/{accountSid}/Calls/{callSid}.json", properties.accountSid(), callSid)
+				.body(BodyInserters.fromFormData("Status", status))
+				.retrieve()
+				.onStatus(HttpStatusCode::isError, response ->
+					response.bodyToMono(String.class)
+						.defaultIfEmpty("")
+						.flatMap(errorBody -> {
+							log.error("Twilio API error ending call {} - Status: {}, Body: {}",
+									callSid, response.statusCode(), errorBody);
+							return Mono.error(new UpstreamServiceException(
+									response.statusCode(), errorBody));
+						}))
+				.bodyToMono(Void.class);
+	}
+
+	public String extractCallStatus(JsonNode response) {
+		return response != null ? toCallStatus(response.path("status").asText(null)) : null;
+	}
+
+	/**
+	 * Maps a Twilio call status onto the statuses used for ElevenLabs webhooks.
+	 */
+	public static String toCallStatus(String twilioStatus) {
+		if (twilioStatus == null) {
+			return null;
+		}
+		return switch (twilioStatus) {
+			case "queued", "initiated" -> "initiated";
+			case "ringing" -> "ringing";
+			case "in-progress", "answered" -> "answered";
+			case "no-answer" -> "no_answer";
+			default -> twilioStatus;
+		};
+	}
+
+	private static String alertTwiml(CreateOutboundCallRequest request) {
+		StringBuilder message = new StringBuilder()
+				.append("This is an AlertMind incident alert. ")
+				.append("Priority ").append(request.priority())
+				.append(" incident ").append(request.incidentNumber()).append(". ")
+				.append(request.shortDescription()).append(". ");
+		if (request.possibleFix() != null && !request.possibleFix().isBlank()) {
+			message.append("Possible fix: ").append(request.possibleFix()).append(". ");
+		}
+		// With an encoding only the XML special characters are escaped; HTML named entities such as
+		// &eacute; are not valid TwiML
+		String say = "<Say>" + HtmlUtils.htmlEscape(message.toString(), StandardCharsets.UTF_8.name()) + "</Say>";
+		return "<Response>" + say + "<Pause length=\"1\"/>" + say + "</Response>";
+	}
+}
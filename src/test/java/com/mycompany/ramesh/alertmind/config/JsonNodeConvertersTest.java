@@ -0,0 +1,90 @@
+package com.mycompany.ramesh.alertmind.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonNodeConvertersTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void readsBeanMappedLegacyDocument() throws Exception {
+		// rawResponse of a call written by the reflective bean mapping, as it is stored in agent_calls
+		Document legacy = Document.parse("""
+				{
+				  "_children": {
+				    "success": { "_value": true, "_class": "com.fasterxml.jackson.databind.node.BooleanNode" },
+				    "message": { "_value": "Call initiated", "_class": "com.fasterxml.jackson.databind.node.TextNode" },
+				    "conversation_id": { "_value": "conv_123", "_class": "com.fasterxml.jackson.databind.node.TextNode" },
+				    "callSid": { "_value": "CA123", "_class": "com.fasterxml.jackson.databind.node.TextNode" },
+				    "attempt": { "_value": 2, "_class": "com.fasterxml.jackson.databind.node.IntNode" },
+				    "error": { "_class": "com.fasterxml.jackson.databind.node.NullNode" },
+				    "tags": {
+				      "_children": [
+				        { "_value": "p1", "_class": "com.fasterxml.jackson.databind.node.TextNode" },
+				        { "_value": "db", "_class": "com.fasterxml.jackson.databind.node.TextNode" }
+				      ],
+				      "_class": "com.fasterxml.jackson.databind.node.ArrayNode"
+				    }
+				  },
+				  "_class": "com.fasterxml.jackson.databind.node.ObjectNode"
+				}
+				""");
+
+		JsonNode node = JsonNodeConverters.DocumentToJsonNodeConverter.INSTANCE.convert(legacy);
+
+		assertThat(node).isEqualTo(objectMapper.readTree("""
+				{
+				  "success": true,
+				  "message": "Call initiated",
+				  "conversation_id": "conv_123",
+				  "callSid": "CA123",
+				  "attempt": 2,
+				  "error": null,
+				  "tags": ["p1", "db"]
+				}
+				"""));
+	}
+
+	@Test
+	void keepsDocumentsThatOnlyLookLegacy() throws Exception {
+		Document document = Document.parse("{ \"_value\": \"x\", \"other\": 1 }");
+
+		JsonNode node = JsonNodeConverters.DocumentToJsonNodeConverter.INSTANCE.convert(document);
+
+		assertThat(node).isEqualTo(objectMapper.readTree("{ \"_value\": \"x\", \"other\": 1 }"));
+	}
+
+	@Test
+	void roundTripsTrees() throws Exception {
+		JsonNode tree = objectMapper.readTree("""
+				{ "id": "conv_1", "count": 3, "big": 9007199254740993, "ratio": 0.25, "ok": false,
+				  "turns": [ { "role": "agent", "message": "Hello" } ], "none": null }
+				""");
+
+		Document document = JsonNodeConverters.JsonNodeToDocumentConverter.INSTANCE.convert(tree);
+		JsonNode read = JsonNodeConverters.DocumentToJsonNodeConverter.INSTANCE.convert(document);
+
+		assertThat(read.get("id").textValue()).isEqualTo("conv_1");
+		assertThat(read.get("count").intValue()).isEqualTo(3);
+		assertThat(read.get("big").longValue()).isEqualTo(9007199254740993L);
+		assertThat(read.get("ratio").decimalValue()).isEqualByComparingTo("0.25");
+		assertThat(read.get("ok").booleanValue()).isFalse();
+		assertThat(read.get("turns")).isEqualTo(tree.get("turns"));
+		assertThat(read.get("none").isNull()).isTrue();
+	}
+
+	@Test
+	void wrapsNonObjectRoots() throws Exception {
+		JsonNode tree = objectMapper.readTree("[1, \"two\"]");
+
+		Document document = JsonNodeConverters.JsonNodeToDocumentConverter.INSTANCE.convert(tree);
+
+		assertThat(document).containsKey(JsonNodeConverters.VALUE_KEY);
+		assertThat(JsonNodeConverters.DocumentToJsonNodeConverter.INSTANCE.convert(document)).isEqualTo(tree);
+	}
+}
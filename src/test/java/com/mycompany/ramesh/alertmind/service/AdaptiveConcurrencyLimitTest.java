@@ -0,0 +1,82 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+	private static final long NO_LOAD_RTT = Duration.ofMillis(100).toNanos();
+
+	// A probe interval longer than any test, so the no-load latency is only measured once
+	private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 20, 0.5, Duration.ofHours(1));
+
+	@Test
+	void clampsInitialLimit() {
+		assertThat(new AdaptiveConcurrencyLimit(50, 2, 20, 0.5, Duration.ofHours(1)).limit()).isEqualTo(20);
+		assertThat(new AdaptiveConcurrencyLimit(1, 2, 20, 0.5, Duration.ofHours(1)).limit()).isEqualTo(2);
+	}
+
+	@Test
+	void rejectsRequestsBeyondTheLimit() {
+		for (int i = 0; i < 10; i++) {
+			assertThat(limit.tryAcquire()).isTrue();
+		}
+
+		assertThat(limit.tryAcquire()).isFalse();
+		assertThat(limit.inflight()).isEqualTo(10);
+
+		limit.release(NO_LOAD_RTT, 10, false);
+		assertThat(limit.tryAcquire()).isTrue();
+	}
+
+	@Test
+	void growsWhileLatencyStaysAtNoLoad() {
+		complete(NO_LOAD_RTT, 10);
+
+		complete(NO_LOAD_RTT, 10);
+
+		assertThat(limit.limit()).isEqualTo(11);
+	}
+
+	@Test
+	void shrinksWhenRequestsQueue() {
+		complete(NO_LOAD_RTT, 10);
+
+		complete(NO_LOAD_RTT * 10, 10);
+
+		assertThat(limit.limit()).isEqualTo(9);
+	}
+
+	@Test
+	void ignoresLatencyFarBelowTheLimit() {
+		complete(NO_LOAD_RTT, 10);
+
+		complete(NO_LOAD_RTT * 10, 2);
+		complete(NO_LOAD_RTT, 2);
+
+		assertThat(limit.limit()).isEqualTo(10);
+	}
+
+	@Test
+	void backsOffOnDropsDownToTheMinimum() {
+		assertThat(limit.tryAcquire()).isTrue();
+		limit.release(NO_LOAD_RTT, 1, true);
+		assertThat(limit.limit()).isEqualTo(5);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(limit.tryAcquire()).isTrue();
+			limit.release(NO_LOAD_RTT, 1, true);
+		}
+
+		assertThat(limit.limit()).isEqualTo(2);
+		assertThat(limit.inflight()).isZero();
+	}
+
+	private void complete(long rttNanos, int inflightAtStart) {
+		assertThat(limit.tryAcquire()).isTrue();
+		limit.release(rttNanos, inflightAtStart, false);
+	}
+}
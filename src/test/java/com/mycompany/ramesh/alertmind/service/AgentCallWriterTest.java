@@ -0,0 +1,150 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mycompany.ramesh.alertmind.config.WriteBehindProperties;
+import com.mycompany.ramesh.alertmind.entity.AgentCall;
+import com.mycompany.ramesh.alertmind.repository.AgentCallRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AgentCallWriterTest {
+
+	private static final Duration NO_TICK = Duration.ofHours(1);
+
+	private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+	private final AgentCallRepository agentCallRepository = mock(AgentCallRepository.class);
+	// Documents of each bulk write, in the order the writes were started
+	private final List<List<AgentCall>> bulkWrites = new ArrayList<>();
+	// Results handed out to bulk writes; when empty a write succeeds immediately
+	private final Queue<Sinks.One<BulkWriteResult>> bulkResults = new ConcurrentLinkedQueue<>();
+	private AgentCallWriter writer;
+
+	@AfterEach
+	void stopWriter() {
+		if (writer != null) {
+			bulkResults.clear();
+			writer.shutdown();
+		}
+	}
+
+	@Test
+	void coalescesWritesToTheSameDocument() {
+		writer = writer(10, 10);
+		AgentCall created = AgentCall.fromRequest("+15550100", null);
+		AgentCall initiated = created.withStatusUpdate("initiated", null);
+
+		List<AgentCall> results = new ArrayList<>();
+		writer.save(created).subscribe(results::add);
+		writer.save(initiated).subscribe(results::add);
+		writer.shutdown();
+
+		assertThat(bulkWrites).hasSize(1);
+		assertThat(bulkWrites.get(0)).containsExactly(initiated);
+		// Both callers see the version that was written
+		assertThat(results).containsExactly(initiated, initiated);
+	}
+
+	@Test
+	void flushesOnceABatchIsFull() {
+		writer = writer(2, 10);
+
+		writer.save(AgentCall.fromRequest("+15550100", null)).subscribe();
+		assertThat(bulkWrites).isEmpty();
+		writer.save(AgentCall.fromRequest("+15550101", null)).subscribe();
+
+		assertThat(bulkWrites).hasSize(1);
+		assertThat(bulkWrites.get(0)).hasSize(2);
+	}
+
+	@Test
+	void queuesSavesWhileTheBufferIsFullInsteadOfWritingAroundIt() {
+		writer = writer(10, 1);
+		AgentCall first = AgentCall.fromRequest("+15550100", null);
+		AgentCall other = AgentCall.fromRequest("+15550101", null);
+		AgentCall firstUpdated = first.withStatusUpdate("initiated", null);
+		Sinks.One<BulkWriteResult> inFlight = Sinks.one();
+		bulkResults.add(inFlight);
+
+		List<AgentCall> written = new ArrayList<>();
+		writer.save(first).subscribe(written::add);
+		// Buffer full: queued, and the full buffer is flushed
+		writer.save(other).subscribe(written::add);
+		// Queued behind other even though first is no longer pending
+		writer.save(firstUpdated).subscribe(written::add);
+
+		assertThat(bulkWrites).containsExactly(List.of(first));
+		assertThat(written).isEmpty();
+
+		inFlight.tryEmitValue(mock(BulkWriteResult.class));
+
+		assertThat(bulkWrites).containsExactly(List.of(first), List.of(other), List.of(firstUpdated));
+		assertThat(written).containsExactly(first, other, firstUpdated);
+		verify(agentCallRepository, never()).save(any(AgentCall.class));
+	}
+
+	@Test
+	void savesIndividuallyWhenTheBulkWriteFails() {
+		writer = writer(1, 10);
+		Sinks.One<BulkWriteResult> failing = Sinks.one();
+		failing.tryEmitError(new IllegalStateException("bulk failed"));
+		bulkResults.add(failing);
+		AgentCall call = AgentCall.fromRequest("+15550100", null);
+		when(agentCallRepository.save(call)).thenReturn(Mono.just(call));
+
+		List<AgentCall> written = new ArrayList<>();
+		writer.save(call).subscribe(written::add);
+
+		verify(agentCallRepository).save(call);
+		assertThat(written).containsExactly(call);
+	}
+
+	@Test
+	void savesDirectlyWhenDisabled() {
+		writer = new AgentCallWriter(mongoTemplate, agentCallRepository,
+				new WriteBehindProperties(false, NO_TICK, 10, 10), new SimpleMeterRegistry());
+		AgentCall call = AgentCall.fromRequest("+15550100", null);
+		when(agentCallRepository.save(call)).thenReturn(Mono.just(call));
+
+		assertThat(writer.save(call).block()).isEqualTo(call);
+		verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(AgentCall.class));
+	}
+
+	private AgentCallWriter writer(int maxBatchSize, int maxPending) {
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AgentCall.class)).thenAnswer(invocation -> {
+			List<AgentCall> documents = new ArrayList<>();
+			bulkWrites.add(documents);
+			ReactiveBulkOperations bulk = mock(ReactiveBulkOperations.class);
+			when(bulk.replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class))).thenAnswer(replace -> {
+				documents.add(replace.getArgument(1));
+				return bulk;
+			});
+			Sinks.One<BulkWriteResult> result = bulkResults.poll();
+			when(bulk.execute()).thenReturn(result != null ? result.asMono() : Mono.just(mock(BulkWriteResult.class)));
+			return bulk;
+		});
+		return new AgentCallWriter(mongoTemplate, agentCallRepository,
+				new WriteBehindProperties(true, NO_TICK, maxBatchSize, maxPending), new SimpleMeterRegistry());
+	}
+}
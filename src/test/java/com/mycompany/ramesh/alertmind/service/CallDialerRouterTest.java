@@ -0,0 +1,170 @@
+package com.mycompany.ramesh.alertmind.service;
+
+import com.mycompany.ramesh.alertmind.config.DialerRoutingProperties;
+import com.mycompany.ramesh.alertmind.config.ElevenLabsProperties;
+import com.mycompany.ramesh.alertmind.config.TwilioProperties;
+import com.mycompany.ramesh.alertmind.dto.CreateOutboundCallRequest;
+import com.mycompany.ramesh.alertmind.exception.UpstreamServiceException;
+import com.mycompany.ramesh.alertmind.service.CallDialer.DialedCall;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the router through the real ElevenLabs and Twilio clients against local HTTP stubs.
+ */
+class CallDialerRouterTest {
+
+	private static final String TWILIO_CREATED = "{ \"sid\": \"CA123\", \"status\": \"queued\" }";
+	private static final String ELEVENLABS_CREATED = "{ \"success\": true, \"conversation_id\": \"conv_1\", \"callSid\": \"CA999\" }";
+
+	private final MockWebServer elevenLabs = new MockWebServer();
+	private final MockWebServer twilio = new MockWebServer();
+	private CallDialerRouter router;
+
+	@BeforeEach
+	void startStubs() throws IOException {
+		elevenLabs.start();
+		twilio.start();
+		ElevenLabsClient elevenLabsClient = new ElevenLabsClient(webClient(elevenLabs), elevenLabsProperties(elevenLabs),
+				new SimpleMeterRegistry());
+		TwilioClient twilioClient = new TwilioClient(webClient(twilio),
+				new TwilioProperties(baseUrl(twilio), "AC123", "token", "+15550000", null));
+		DialerRoutingProperties properties = new DialerRoutingProperties(List.of("elevenlabs", "twilio"), true,
+				Duration.ofMinutes(2), 3, 0.3, Duration.ofSeconds(5), Duration.ofMillis(500));
+		router = new CallDialerRouter(List.of(elevenLabsClient, twilioClient), properties, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void stopStubs() throws IOException {
+		elevenLabs.shutdown();
+		twilio.shutdown();
+	}
+
+	@Test
+	void dialsThroughThePrimaryWhileItIsHealthy() {
+		elevenLabs.enqueue(json(200, ELEVENLABS_CREATED));
+
+		DialedCall dialed = router.dial(request("Database down")).block();
+
+		assertThat(dialed.provider()).isEqualTo(ElevenLabsClient.PROVIDER);
+		assertThat(twilio.getRequestCount()).isZero();
+	}
+
+	@Test
+	void failsOverOnServerError() {
+		elevenLabs.enqueue(json(503, "{ \"detail\": \"unavailable\" }"));
+		twilio.enqueue(json(201, TWILIO_CREATED));
+
+		DialedCall dialed = router.dial(request("Database down")).block();
+
+		assertThat(dialed.provider()).isEqualTo(TwilioClient.PROVIDER);
+		assertThat(dialed.callId()).isEqualTo("CA123");
+		assertThat(dialed.status()).isEqualTo("initiated");
+	}
+
+	@Test
+	void failsOverWhenThrottled() {
+		elevenLabs.enqueue(json(429, "{ \"detail\": \"too many concurrent calls\" }"));
+		twilio.enqueue(json(201, TWILIO_CREATED));
+
+		DialedCall dialed = router.dial(request("Database down")).block();
+
+		assertThat(dialed.provider()).isEqualTo(TwilioClient.PROVIDER);
+	}
+
+	@Test
+	void failsOverOnTimeout() {
+		elevenLabs.enqueue(json(200, ELEVENLABS_CREATED).setHeadersDelay(2, TimeUnit.SECONDS));
+		twilio.enqueue(json(201, TWILIO_CREATED));
+
+		DialedCall dialed = router.dial(request("Database down")).block();
+
+		assertThat(dialed.provider()).isEqualTo(TwilioClient.PROVIDER);
+	}
+
+	@Test
+	void doesNotFailOverOnClientError() {
+		elevenLabs.enqueue(json(400, "{ \"detail\": \"invalid number\" }"));
+
+		assertThatThrownBy(() -> router.dial(request("Database down")).block())
+				.isInstanceOfSatisfying(UpstreamServiceException.class,
+						e -> assertThat(e.getStatus().value()).isEqualTo(400));
+		assertThat(twilio.getRequestCount()).isZero();
+	}
+
+	@Test
+	void ranksADegradedProviderLast() {
+		for (int i = 0; i < 3; i++) {
+			elevenLabs.enqueue(json(503, "{}"));
+			twilio.enqueue(json(201, TWILIO_CREATED));
+			router.dial(request("Database down")).block();
+		}
+		twilio.enqueue(json(201, TWILIO_CREATED));
+
+		DialedCall dialed = router.dial(request("Database down")).block();
+
+		assertThat(dialed.provider()).isEqualTo(TwilioClient.PROVIDER);
+		// Three failed samples make ElevenLabs degraded, so the fourth call goes to Twilio first
+		assertThat(elevenLabs.getRequestCount()).isEqualTo(3);
+		assertThat(twilio.getRequestCount()).isEqualTo(4);
+	}
+
+	@Test
+	void escapesTheTwimlAsXml() throws InterruptedException {
+		elevenLabs.enqueue(json(503, "{}"));
+		twilio.enqueue(json(201, TWILIO_CREATED));
+
+		router.dial(request("Café <db> & \"cache\" down")).block();
+
+		RecordedRequest recorded = twilio.takeRequest();
+		String form = URLDecoder.decode(recorded.getBody().readUtf8(), StandardCharsets.UTF_8);
+		assertThat(form).contains("Café &lt;db&gt; &amp; &quot;cache&quot; down")
+				.doesNotContain("&eacute;");
+	}
+
+	private static CreateOutboundCallRequest request(String shortDescription) {
+		return new CreateOutboundCallRequest("+15550100", "INC0010001", "P1", shortDescription, null,
+				"2026-10-19T10:00:00+08:00", null, null, "Database");
+	}
+
+	private static MockResponse json(int status, String body) {
+		return new MockResponse()
+				.setResponseCode(status)
+				.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.setBody(body);
+	}
+
+	private static WebClient webClient(MockWebServer server) {
+		return WebClient.builder().baseUrl(baseUrl(server)).build();
+	}
+
+	private static String baseUrl(MockWebServer server) {
+		String url = server.url("/").toString();
+		return url.substring(0, url.length() - 1);
+	}
+
+	private static ElevenLabsProperties elevenLabsProperties(MockWebServer server) {
+		ByteArrayResource empty = new ByteArrayResource(new byte[0]);
+		return new ElevenLabsProperties(baseUrl(server), "key", "/v1/agents", "Agent", "voice", "en",
+				empty, empty, "/v1/convai/twilio/outbound-call", "agent_1", "phone_1", null, List.of());
+	}
+}